@@ -0,0 +1,146 @@
+package com.genJson.payloadgen.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.genJson.payloadgen.service.GenericCrudService;
+
+/**
+ * End-to-end service calls against an in-memory H2 database. Scores are per
+ * request; absolute numbers are not comparable with PostgreSQL, but relative
+ * changes between runs are.
+ * <p>
+ * {@code bulk=true} only takes the JDBC bulk insert on PostgreSQL; on H2 it
+ * measures the JPA fallback. To compare the two write paths, run against the
+ * datasource from application.properties:
+ * {@code -Djmh.args="CrudBenchmarks.saveOrUpdate -p database=postgres"}. Rows
+ * inserted by a save iteration are deleted after it, so every iteration starts
+ * from the same table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrudBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class SaveState {
+
+        @Param({ "1", "100", "1000" })
+        public int rows;
+
+        @Param({ "true", "false" })
+        public boolean bulk;
+
+        /** {@code h2}, or {@code postgres} for the datasource from application.properties. */
+        @Param({ "h2" })
+        public String database;
+
+        ConfigurableApplicationContext context;
+        GenericCrudService crudService;
+        JdbcTemplate jdbc;
+        Map<String, Object> payload;
+        long baselineId;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            context = EmbeddedApp.start("save", !database.equals("postgres"));
+            crudService = context.getBean(GenericCrudService.class);
+            jdbc = context.getBean(JdbcTemplate.class);
+            // Rows already in a shared database are left alone
+            baselineId = jdbc.queryForObject("select coalesce(max(id), 0) from product", Long.class);
+
+            payload = new LinkedHashMap<>();
+            payload.put("entity", "product");
+            payload.put("bulk", bulk);
+            payload.put("data", Payloads.products("typed", rows, 7));
+        }
+
+        @TearDown(Level.Iteration)
+        public void resetTable() {
+            jdbc.update("delete from product where id > ?", baselineId);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FindState {
+
+        static final int SEEDED_ROWS = 10_000;
+
+        @Param({ "offset", "cursor" })
+        public String mode;
+
+        @Param({ "0", "150" })
+        public int page;
+
+        ConfigurableApplicationContext context;
+        GenericCrudService crudService;
+        Map<String, Object> payload;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            context = EmbeddedApp.start("find");
+            crudService = context.getBean(GenericCrudService.class);
+
+            List<Map<String, Object>> rows = Payloads.products("typed", SEEDED_ROWS, 11);
+            for (int from = 0; from < rows.size(); from += 1000) {
+                crudService.saveOrUpdate(Map.of("entity", "product", "data", rows.subList(from, from + 1000)));
+            }
+
+            payload = new LinkedHashMap<>();
+            payload.put("entity", "product");
+            payload.put("size", 50);
+            payload.put("sortBy", "price");
+            if (mode.equals("cursor")) {
+                // Walk the cursor chain to the same depth the offset variant reads at
+                payload.put("mode", "cursor");
+                for (int i = 0; i < page; i++) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> response = (Map<String, Object>) crudService.findAll(payload);
+                    payload.put("cursor", response.get("nextCursor"));
+                }
+            } else {
+                payload.put("page", page);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Object saveOrUpdate(SaveState state) {
+        return state.crudService.saveOrUpdate(state.payload);
+    }
+
+    @Benchmark
+    public Object findAll(FindState state) {
+        return state.crudService.findAll(state.payload);
+    }
+}
@@ -0,0 +1,65 @@
+package com.genJson.payloadgen.benchmarks;
+
+import java.util.Arrays;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.genJson.payloadgen.PayloadgenApplication;
+
+/**
+ * Boots the application against an in-memory H2 database, so end-to-end
+ * benchmarks need no external PostgreSQL, or against the configured one when
+ * a benchmark needs its dialect-specific paths.
+ */
+final class EmbeddedApp {
+
+    private static final String[] QUIET = {
+            "--spring.jpa.show-sql=false",
+            "--spring.jpa.properties.hibernate.format_sql=false",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN" };
+
+    private EmbeddedApp() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        return start(databaseName, true);
+    }
+
+    /**
+     * Boots without a web server, against H2 or (with {@code h2 == false}) the
+     * datasource from application.properties.
+     */
+    static ConfigurableApplicationContext start(String databaseName, boolean h2) {
+        // Command-line arguments take precedence over application.properties
+        return new SpringApplicationBuilder(PayloadgenApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(concat(h2 ? h2(databaseName) : new String[0], QUIET));
+    }
+
+    /**
+     * Boots the full web application on a random local port, against H2 or
+     * (with {@code h2 == false}) the datasource from application.properties.
+     */
+    static ConfigurableApplicationContext startServer(boolean h2) {
+        return new SpringApplicationBuilder(PayloadgenApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(concat(h2 ? h2("loadtest") : new String[0], QUIET, new String[] { "--server.port=0" }));
+    }
+
+    private static String[] h2(String databaseName) {
+        return new String[] {
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop" };
+    }
+
+    private static String[] concat(String[]... parts) {
+        return Arrays.stream(parts).flatMap(Arrays::stream).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,70 @@
+package com.genJson.payloadgen.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.genJson.payloadgen.service.EntityRegistry;
+
+/**
+ * Entity guessing for payloads sent without an "entity" name.
+ * {@code repeated} cycles through a few key sets (the cached path),
+ * {@code distinct} never repeats a key set within the guess cache size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class GuessBenchmarks {
+
+    private static final int PAYLOADS = 4096;
+
+    @Param({ "repeated", "distinct" })
+    public String keySets;
+
+    @Param({ "4", "16" })
+    public int keysPerPayload;
+
+    private EntityRegistry registry;
+    private List<Map<String, Object>> payloads;
+    private int next;
+
+    @Setup
+    public void setup() {
+        registry = new EntityRegistry(null, null);
+        payloads = new ArrayList<>(PAYLOADS);
+        boolean distinct = keySets.equals("distinct");
+        for (int i = 0; i < PAYLOADS; i++) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put((i & 1) == 0 ? "productName" : "name", "value");
+            payload.put((i & 1) == 0 ? "price" : "email", "value");
+            for (int k = 2; k < keysPerPayload; k++) {
+                payload.put(distinct ? "extra" + i + "_" + k : "extra" + (i % 4) + "_" + k, k);
+            }
+            payloads.add(payload);
+        }
+    }
+
+    @Benchmark
+    public Class<?> guessEntityByPayload() {
+        Map<String, Object> payload = payloads.get(next);
+        next = (next + 1) % PAYLOADS;
+        return registry.guessEntityByPayload(payload);
+    }
+}
@@ -0,0 +1,223 @@
+package com.genJson.payloadgen.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * HTTP load driver for {@code /api/crud/*}. It targets a running instance
+ * ({@code --target=http://host:port}) or boots one in-process on a loopback
+ * port, backed by H2 or the configured PostgreSQL.
+ * <p>
+ * Setup preloads {@code --preload} generated rows per entity and samples their
+ * ids. Then {@code --concurrency} virtual threads issue the weighted
+ * {@code --mix} for {@code --warmup} plus {@code --duration}. Latencies
+ * after warm-up go into one HdrHistogram per operation and entity. With
+ * {@code --rate} the run is open-loop: latency counts from each request's
+ * scheduled start, so a stalled server is not hidden by coordinated omission.
+ * Payloads come from the app's seeded generator, so equal options replay the
+ * same requests.
+ */
+public final class LoadDriver {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int PAYLOAD_POOL = 2_000;
+    private static final int ID_SAMPLE = 5_000;
+
+    private final LoadOptions options;
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Map<String, List<String>> payloads = new ConcurrentHashMap<>();
+    private final Map<String, List<Long>> ids = new ConcurrentHashMap<>();
+
+    private LoadDriver(LoadOptions options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        ConfigurableApplicationContext app = null;
+        String baseUrl = options.target();
+        if (baseUrl == null) {
+            app = EmbeddedApp.startServer(options.database().equals("h2"));
+            baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            LoadReport report = new LoadDriver(options, baseUrl.replaceAll("/+$", "")).run();
+            report.print(System.out);
+            System.out.println("Report written to " + report.write(options.out()));
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private LoadReport run() throws Exception {
+        for (String entity : options.entities()) {
+            prepare(entity);
+        }
+
+        LoadReport report = new LoadReport(options, baseUrl);
+        long warmupEnd = System.nanoTime() + options.warmup().toNanos();
+        long end = warmupEnd + options.duration().toNanos();
+        report.measuringFrom(warmupEnd);
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < options.concurrency(); worker++) {
+                int id = worker;
+                workers.submit(() -> work(id, warmupEnd, end, report));
+            }
+            workers.shutdown();
+            workers.awaitTermination(options.warmup().plus(options.duration()).toSeconds() + 120, TimeUnit.SECONDS);
+        }
+        report.finish();
+        return report;
+    }
+
+    // Preload rows, then keep a pool of generated payloads and a sample of existing ids
+    private void prepare(String entity) throws IOException, InterruptedException {
+        JsonNode populated = json(send("POST", "/api/crud/generate?entity=" + entity + "&count="
+                + options.preload() + "&seed=" + options.seed(), null));
+        if (!"success".equals(populated.path("status").asText())) {
+            throw new IllegalStateException("Preloading " + entity + " failed: " + populated);
+        }
+
+        // Offset past the preloaded range keeps generated emails unique
+        String records = send("GET", "/api/crud/generate/" + entity + "?count=" + PAYLOAD_POOL + "&seed="
+                + options.seed() + "&offset=" + options.preload(), null).body();
+        payloads.put(entity, records.lines().filter(line -> !line.isBlank()).toList());
+
+        JsonNode page = json(send("POST", "/api/crud/find_all", "{\"entity\":\"" + entity
+                + "\",\"fields\":[\"id\"],\"size\":" + ID_SAMPLE + "}"));
+        List<Long> sample = new ArrayList<>();
+        page.path("data").forEach(row -> sample.add(row.path("id").asLong()));
+        if (sample.isEmpty()) {
+            throw new IllegalStateException("No " + entity + " rows to read after preloading: " + page);
+        }
+        ids.put(entity, sample);
+    }
+
+    private void work(int worker, long measureFrom, long end, LoadReport report) {
+        SplittableRandom random = new SplittableRandom(options.seed() * 31 + worker);
+        String[] operations = options.mix().keySet().toArray(String[]::new);
+        int[] cumulative = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix().get(operations[i]);
+            cumulative[i] = total;
+        }
+
+        // Each worker owns an equal share of the target rate
+        long interval = options.rate() > 0 ? TimeUnit.SECONDS.toNanos(options.concurrency()) / options.rate() : 0;
+        long scheduled = System.nanoTime() + (interval > 0 ? random.nextLong(interval) : 0);
+
+        while (true) {
+            if (interval > 0) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            long start = interval > 0 ? scheduled : System.nanoTime();
+            if (start >= end) {
+                return;
+            }
+
+            int pick = random.nextInt(total);
+            int op = 0;
+            while (cumulative[op] <= pick) {
+                op++;
+            }
+            String operation = operations[op];
+            String entity = options.entities().get(random.nextInt(options.entities().size()));
+
+            boolean ok;
+            try {
+                ok = execute(operation, entity, random).statusCode() < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long finished = System.nanoTime();
+            if (start >= measureFrom) {
+                report.record(operation, entity, finished - start, ok);
+            }
+            scheduled += interval;
+        }
+    }
+
+    private HttpResponse<String> execute(String operation, String entity, SplittableRandom random)
+            throws IOException, InterruptedException {
+        String quoted = "\"" + entity + "\"";
+        return switch (operation) {
+            case "create" -> send("POST", "/api/crud/create_or_update",
+                    "{\"entity\":" + quoted + ",\"data\":" + payload(entity, random) + "}");
+            case "bulk_create" -> {
+                StringBuilder rows = new StringBuilder("{\"entity\":").append(quoted).append(",\"data\":[");
+                for (int i = 0; i < options.batch(); i++) {
+                    rows.append(i == 0 ? "" : ",").append(payload(entity, random));
+                }
+                yield send("POST", "/api/crud/create_or_update", rows.append("]}").toString());
+            }
+            case "read" -> send("GET", "/api/crud/read",
+                    "{\"entity\":" + quoted + ",\"id\":" + id(entity, random) + "}");
+            case "find_all" -> send("POST", "/api/crud/find_all",
+                    "{\"entity\":" + quoted + ",\"page\":" + random.nextInt(10) + ",\"size\":20}");
+            case "patch" -> send("PATCH", "/api/crud/patch",
+                    "{\"entity\":" + quoted + ",\"id\":" + id(entity, random) + ",\"data\":"
+                            + payload(entity, random) + "}");
+            default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        };
+    }
+
+    private String payload(String entity, SplittableRandom random) {
+        List<String> pool = payloads.get(entity);
+        return pool.get(random.nextInt(pool.size()));
+    }
+
+    private long id(String entity, SplittableRandom random) {
+        List<Long> sample = ids.get(entity);
+        return sample.get(random.nextInt(sample.size()));
+    }
+
+    private HttpResponse<String> send(String method, String path, String body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static JsonNode json(HttpResponse<String> response) throws IOException {
+        return MAPPER.readTree(response.body());
+    }
+}
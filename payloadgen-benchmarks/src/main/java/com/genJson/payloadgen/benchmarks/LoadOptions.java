@@ -0,0 +1,102 @@
+package com.genJson.payloadgen.benchmarks;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options of {@link LoadDriver}, given as {@code --name=value}.
+ *
+ * @param target      base URL of a running instance; null boots one in-process
+ * @param database    {@code h2} or {@code postgres} for the in-process instance
+ * @param rate        total operations per second; 0 runs closed-loop
+ * @param mix         operation name to relative weight
+ * @param batch       rows per {@code bulk_create} request
+ * @param preload     rows generated per entity before the run
+ * @param label       free-form build or run label copied into the report
+ */
+record LoadOptions(String target, String database, Duration duration, Duration warmup, int concurrency, int rate,
+        Map<String, Integer> mix, List<String> entities, int batch, int preload, long seed, Path out,
+        String label) {
+
+    static final List<String> OPERATIONS = List.of("create", "bulk_create", "read", "find_all", "patch");
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        LoadOptions options = new LoadOptions(
+                values.remove("target"),
+                values.getOrDefault("database", "h2"),
+                duration(values.getOrDefault("duration", "30s")),
+                duration(values.getOrDefault("warmup", "5s")),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                Integer.parseInt(values.getOrDefault("rate", "0")),
+                mix(values.getOrDefault("mix", "read:50,find_all:20,create:15,patch:10,bulk_create:5")),
+                List.of(values.getOrDefault("entities", "user,product").split(",")),
+                Integer.parseInt(values.getOrDefault("batch", "100")),
+                Integer.parseInt(values.getOrDefault("preload", "10000")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("out", "target/loadtest")),
+                values.getOrDefault("label", ""));
+        for (String known : List.of("database", "duration", "warmup", "concurrency", "rate", "mix", "entities",
+                "batch", "preload", "seed", "out", "label")) {
+            values.remove(known);
+        }
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet());
+        }
+        if (!options.database.equals("h2") && !options.database.equals("postgres")) {
+            throw new IllegalArgumentException("database must be h2 or postgres");
+        }
+        if (options.concurrency < 1 || options.batch < 1 || options.preload < 1) {
+            throw new IllegalArgumentException("concurrency, batch and preload must be positive");
+        }
+        return options;
+    }
+
+    // 500ms, 30s, 5m or an ISO-8601 duration
+    private static Duration duration(String value) {
+        if (value.startsWith("P") || value.startsWith("p")) {
+            return Duration.parse(value);
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Invalid duration '" + value + "'");
+        };
+    }
+
+    private static Map<String, Integer> mix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        List<String> unknown = new ArrayList<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.split(":");
+            String operation = pair[0].trim().toLowerCase();
+            if (!OPERATIONS.contains(operation)) {
+                unknown.add(operation);
+            }
+            int weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+            if (weight > 0) {
+                mix.put(operation, weight);
+            }
+        }
+        if (!unknown.isEmpty() || mix.isEmpty()) {
+            throw new IllegalArgumentException("Invalid mix '" + value + "'; operations are " + OPERATIONS);
+        }
+        return mix;
+    }
+}
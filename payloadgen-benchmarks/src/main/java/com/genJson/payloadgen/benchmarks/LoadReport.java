@@ -0,0 +1,169 @@
+package com.genJson.payloadgen.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Per operation and entity latency histograms (microseconds, 3 significant
+ * digits) of one {@link LoadDriver} run: one over every request, so failures
+ * still count towards the percentiles, and one over the failed requests alone.
+ * The report is written as {@code summary.json} (options, environment,
+ * throughput and percentiles), {@code latency.hlog} (an HdrHistogram log with
+ * one tagged histogram per key, failures tagged {@code <key>:errors}, readable
+ * by HistogramLogProcessor) and one {@code .hgrm} percentile distribution per
+ * histogram for the HdrHistogram plotter.
+ */
+final class LoadReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final Histogram EMPTY = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final LoadOptions options;
+    private final String target;
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, Recorder> errorRecorders = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new TreeMap<>();
+    private final Map<String, Histogram> errorHistograms = new TreeMap<>();
+    private final long startedAtMillis = System.currentTimeMillis();
+    private long measureFromNanos;
+    private long measuredNanos;
+
+    LoadReport(LoadOptions options, String target) {
+        this.options = options;
+        this.target = target;
+    }
+
+    void measuringFrom(long nanoTime) {
+        this.measureFromNanos = nanoTime;
+    }
+
+    void record(String operation, String entity, long latencyNanos, boolean ok) {
+        String key = operation + "/" + entity;
+        long micros = Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        recorders.computeIfAbsent(key, k -> new Recorder(HIGHEST_TRACKABLE_MICROS, 3)).recordValue(micros);
+        if (!ok) {
+            errorRecorders.computeIfAbsent(key, k -> new Recorder(HIGHEST_TRACKABLE_MICROS, 3)).recordValue(micros);
+        }
+    }
+
+    void finish() {
+        measuredNanos = Math.max(1, System.nanoTime() - measureFromNanos);
+        recorders.forEach((key, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            histogram.setTag(key);
+            histograms.put(key, histogram);
+        });
+        errorRecorders.forEach((key, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            histogram.setTag(key + ":errors");
+            errorHistograms.put(key, histogram);
+        });
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-24s %10s %8s %10s %9s %9s %9s %9s %11s%n", "operation/entity", "requests", "errors",
+                "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "err p99 ms");
+        for (Map<String, Object> row : rows()) {
+            out.printf("%-24s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %11.2f%n", row.get("key"), row.get("count"),
+                    row.get("errors"), row.get("throughput"), row.get("p50"), row.get("p95"), row.get("p99"),
+                    row.get("max"), row.get("errorP99"));
+        }
+    }
+
+    Path write(Path directory) throws IOException {
+        String run = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC)
+                .format(Instant.ofEpochMilli(startedAtMillis));
+        Path dir = Files.createDirectories(directory.resolve(run));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("label", options.label());
+        summary.put("startedAt", Instant.ofEpochMilli(startedAtMillis).toString());
+        summary.put("target", options.target() != null ? target : "in-process (" + options.database() + ")");
+        summary.put("options", Map.of(
+                "durationSeconds", options.duration().toSeconds(),
+                "warmupSeconds", options.warmup().toSeconds(),
+                "concurrency", options.concurrency(),
+                "rate", options.rate(),
+                "mix", options.mix(),
+                "entities", options.entities(),
+                "batch", options.batch(),
+                "preload", options.preload(),
+                "seed", options.seed()));
+        summary.put("environment", Map.of(
+                "java", System.getProperty("java.version"),
+                "os", System.getProperty("os.name") + " " + System.getProperty("os.arch"),
+                "processors", Runtime.getRuntime().availableProcessors()));
+        summary.put("measuredSeconds", measuredNanos / 1e9);
+        summary.put("latencyUnit", "ms");
+        summary.put("results", rows());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(dir.resolve("summary.json").toFile(), summary);
+
+        try (OutputStream log = Files.newOutputStream(dir.resolve("latency.hlog"))) {
+            HistogramLogWriter writer = new HistogramLogWriter(log);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startedAtMillis);
+            writer.outputLegend();
+            for (Histogram histogram : histograms.values()) {
+                writer.outputIntervalHistogram(histogram);
+            }
+            for (Histogram histogram : errorHistograms.values()) {
+                writer.outputIntervalHistogram(histogram);
+            }
+        }
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            writePercentiles(dir.resolve(entry.getKey().replace('/', '-') + ".hgrm"), entry.getValue());
+        }
+        for (Map.Entry<String, Histogram> entry : errorHistograms.entrySet()) {
+            writePercentiles(dir.resolve(entry.getKey().replace('/', '-') + "-errors.hgrm"), entry.getValue());
+        }
+        return dir;
+    }
+
+    private static void writePercentiles(Path file, Histogram histogram) throws IOException {
+        try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file))) {
+            // Scaled to milliseconds
+            histogram.outputPercentileDistribution(hgrm, 1000.0);
+        }
+    }
+
+    private List<Map<String, Object>> rows() {
+        double seconds = measuredNanos / 1e9;
+        return histograms.entrySet().stream().map(entry -> {
+            Histogram histogram = entry.getValue();
+            Histogram failed = errorHistograms.getOrDefault(entry.getKey(), EMPTY);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("key", entry.getKey());
+            row.put("count", histogram.getTotalCount());
+            row.put("errors", failed.getTotalCount());
+            row.put("throughput", histogram.getTotalCount() / seconds);
+            row.put("p50", histogram.getValueAtPercentile(50) / 1000.0);
+            row.put("p95", histogram.getValueAtPercentile(95) / 1000.0);
+            row.put("p99", histogram.getValueAtPercentile(99) / 1000.0);
+            row.put("max", histogram.getMaxValue() / 1000.0);
+            row.put("errorP50", failed.getValueAtPercentile(50) / 1000.0);
+            row.put("errorP99", failed.getValueAtPercentile(99) / 1000.0);
+            row.put("errorMax", failed.getMaxValue() / 1000.0);
+            return row;
+        }).toList();
+    }
+}
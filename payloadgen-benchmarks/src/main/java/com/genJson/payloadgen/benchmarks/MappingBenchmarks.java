@@ -0,0 +1,107 @@
+package com.genJson.payloadgen.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.genJson.payloadgen.config.MappingProperties;
+import com.genJson.payloadgen.model.Product;
+import com.genJson.payloadgen.service.EntityRegistry;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+import com.genJson.payloadgen.service.serviceImpl.EntityMapper;
+
+/**
+ * Payload-to-entity mapping without a database: the per-row work behind
+ * create_or_update. Scores are per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class MappingBenchmarks {
+
+    static final int ROWS = 1000;
+
+    @Param({ "typed", "strings", "mixedCase", "extraKeys" })
+    public String shape;
+
+    private EntityRegistry registry;
+    private EntityMapper entityMapper;
+    private EntityMetadata meta;
+    private List<Map<String, Object>> rows;
+    private List<Object> mapped;
+    private Object target;
+
+    @Setup
+    public void setup() {
+        // Product has no relations, so the repositories are never consulted
+        registry = new EntityRegistry(null, null);
+        entityMapper = new EntityMapper(registry, new MappingProperties());
+        meta = registry.getMetadata(Product.class);
+        rows = Payloads.products(shape, ROWS, 42);
+
+        mapped = new ArrayList<>(ROWS);
+        for (Map<String, Object> row : rows) {
+            mapped.add(entityMapper.mapToEntity(row, meta));
+        }
+        target = meta.newInstance();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void mapToEntity(Blackhole bh) {
+        for (Map<String, Object> row : rows) {
+            bh.consume(entityMapper.mapToEntity(row, meta));
+        }
+    }
+
+    // Field conversion alone (the old convertToFieldType), every key of every row
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void convertFields(Blackhole bh) {
+        for (Map<String, Object> row : rows) {
+            for (Map.Entry<String, Object> entry : row.entrySet()) {
+                var field = meta.field(entry.getKey());
+                if (field != null && field.isSimple()) {
+                    bh.consume(field.convert(entry.getValue()));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void copyNonNullProperties(Blackhole bh) {
+        for (Object source : mapped) {
+            meta.copyNonNullProperties(source, target);
+        }
+        bh.consume(target);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void convertIdType(Blackhole bh) {
+        for (int i = 0; i < ROWS; i++) {
+            // Alternate the forms ids arrive in from JSON
+            Object id = (i & 1) == 0 ? Integer.valueOf(i) : Integer.toString(i);
+            bh.consume(entityMapper.convertIdType(id, Product.class));
+        }
+    }
+}
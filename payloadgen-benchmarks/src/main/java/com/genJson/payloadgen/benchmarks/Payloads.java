@@ -0,0 +1,67 @@
+package com.genJson.payloadgen.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic payload rows shaped like real create_or_update requests.
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    /**
+     * Product rows. {@code shape} is one of:
+     * <ul>
+     * <li>{@code typed} - values already carry the field types</li>
+     * <li>{@code strings} - every value is a string and needs conversion</li>
+     * <li>{@code mixedCase} - keys differ in case from the field names</li>
+     * <li>{@code extraKeys} - typed values plus keys that match no field</li>
+     * </ul>
+     */
+    static List<Map<String, Object>> products(String shape, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double price = Math.round(random.nextDouble(1, 500) * 100) / 100.0;
+            int stock = random.nextInt(0, 1000);
+            Map<String, Object> row = new LinkedHashMap<>();
+            switch (shape) {
+                case "typed" -> {
+                    row.put("productName", "product-" + i);
+                    row.put("category", "category-" + (i % 17));
+                    row.put("price", price);
+                    row.put("stock", stock);
+                }
+                case "strings" -> {
+                    row.put("productName", "product-" + i);
+                    row.put("category", "category-" + (i % 17));
+                    row.put("price", Double.toString(price));
+                    row.put("stock", Integer.toString(stock));
+                }
+                case "mixedCase" -> {
+                    row.put("PRODUCTNAME", "product-" + i);
+                    row.put("Category", "category-" + (i % 17));
+                    row.put("Price", price);
+                    row.put("STOCK", stock);
+                }
+                case "extraKeys" -> {
+                    row.put("productName", "product-" + i);
+                    row.put("category", "category-" + (i % 17));
+                    row.put("price", price);
+                    row.put("stock", stock);
+                    row.put("sku", "SKU-" + i);
+                    row.put("warehouse", "wh-" + (i % 5));
+                    row.put("tags", List.of("a", "b"));
+                }
+                default -> throw new IllegalArgumentException("Unknown payload shape " + shape);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
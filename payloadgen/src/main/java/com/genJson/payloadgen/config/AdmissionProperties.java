@@ -0,0 +1,44 @@
+package com.genJson.payloadgen.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Adaptive concurrency limits per entity, enforced before a request reaches the
+ * CRUD service. Each entity's limit grows while reads and single writes finish
+ * within their latency target and shrinks multiplicatively when they do not
+ * (AIMD); bulk work may only ever hold a share of it and does not adapt it, so
+ * small reads keep getting through.
+ */
+@Data
+@ConfigurationProperties(prefix = "payloadgen.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /** Concurrent calls per entity before any latency has been observed. */
+    private int initialLimit = 20;
+
+    private int minLimit = 2;
+
+    private int maxLimit = 200;
+
+    /** Factor applied to the limit when a call overruns its latency target. */
+    private double backoffRatio = 0.9;
+
+    /** Fraction of an entity's limit that bulk calls may hold at once (at least one). */
+    private double bulkShare = 0.25;
+
+    /** find_all pages larger than this count as bulk. */
+    private int bulkPageSize = 500;
+
+    private Duration readLatencyTarget = Duration.ofMillis(250);
+
+    private Duration writeLatencyTarget = Duration.ofSeconds(1);
+
+    /** Retry-After sent with a 429. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
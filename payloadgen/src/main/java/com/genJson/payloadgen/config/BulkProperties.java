@@ -0,0 +1,89 @@
+package com.genJson.payloadgen.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Settings for the bulk write path used for list payloads.
+ */
+@Data
+@ConfigurationProperties(prefix = "payloadgen.bulk")
+public class BulkProperties {
+
+    /** Use the bulk path for list payloads unless the payload sets "bulk": false. */
+    private boolean enabled = true;
+
+    /** Rows per JDBC batch for inserts and updates. */
+    private int batchSize = 500;
+
+    /** Ids per findAllById lookup (PostgreSQL allows at most 32767 bind parameters). */
+    private int lookupChunkSize = 5000;
+
+    /** Rows mapped and written per transaction by the streaming ingest endpoint. */
+    private int ingestChunkSize = 1000;
+
+    /** Maximum number of failed rows listed individually in an ingest summary. */
+    private int maxReportedFailures = 100;
+
+    /** JDBC fetch size for the server-side cursor behind the export endpoint. */
+    private int exportFetchSize = 1000;
+
+    private Parallel parallel = new Parallel();
+
+    private Coalesce coalesce = new Coalesce();
+
+    /**
+     * Opt-in parallel mode for list payloads ({@code "parallel": true}): the list
+     * is split into partitions that are mapped and written concurrently, each in
+     * its own transaction on its own pooled connection.
+     */
+    @Data
+    public static class Parallel {
+
+        /** Worker threads shared by all parallel requests; keep below the connection pool size. */
+        private int threads = 4;
+
+        /** Partitions waiting for a worker before further ones run on the request thread. */
+        private int queueCapacity = 64;
+
+        /** Rows per partition (one transaction each). */
+        private int partitionSize = 1000;
+
+        /** Partitions of one request in flight at once, unless overridden per entity. */
+        private int parallelism = 4;
+
+        /** Per-entity parallelism, keyed by entity name. */
+        private Map<String, Integer> entities = new HashMap<>();
+    }
+
+    /**
+     * Write-behind for single-object create_or_update calls: writes for an entity
+     * are queued and committed together as one bulk transaction. Enabled per
+     * request with {@code "coalesce": true}, or for all single-object writes here.
+     */
+    @Data
+    public static class Coalesce {
+
+        private boolean enabled = false;
+
+        /** Flush as soon as this many writes are queued for an entity. */
+        private int maxBatchSize = 500;
+
+        /** Flush at the latest this long after the first write of a batch arrived. */
+        private Duration maxDelay = Duration.ofMillis(5);
+
+        /** Writes queued per entity before callers are made to wait. */
+        private int queueCapacity = 10_000;
+
+        /** How long a caller waits for queue space before the write is rejected. */
+        private Duration offerTimeout = Duration.ofSeconds(1);
+
+        /** How long a caller waits for its batch to commit. */
+        private Duration resultTimeout = Duration.ofSeconds(30);
+    }
+}
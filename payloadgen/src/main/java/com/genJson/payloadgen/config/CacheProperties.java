@@ -0,0 +1,44 @@
+package com.genJson.payloadgen.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Read-through cache in front of findById. Defaults apply to every registered
+ * entity and can be overridden per entity under {@code entities.<name>}.
+ */
+@Data
+@ConfigurationProperties(prefix = "payloadgen.cache")
+public class CacheProperties {
+
+    private boolean enabled = false;
+
+    private long maxSize = 10_000;
+
+    private Duration ttl = Duration.ofMinutes(5);
+
+    private Policy policy = Policy.TINY_LFU;
+
+    private Map<String, EntitySettings> entities = new HashMap<>();
+
+    public enum Policy {
+        /** Caffeine's W-TinyLFU admission and eviction. */
+        TINY_LFU,
+        /** Plain least-recently-used eviction. */
+        LRU
+    }
+
+    /** Per-entity overrides; unset values fall back to the defaults above. */
+    @Data
+    public static class EntitySettings {
+        private Boolean enabled;
+        private Long maxSize;
+        private Duration ttl;
+        private Policy policy;
+    }
+}
@@ -0,0 +1,33 @@
+package com.genJson.payloadgen.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Settings for the server-sent change feed ({@code /api/crud/changes/{entity}}).
+ */
+@Data
+@ConfigurationProperties(prefix = "payloadgen.changes")
+public class ChangeFeedProperties {
+
+    /** Recent events kept per entity for clients resuming with Last-Event-ID. */
+    private int historySize = 1024;
+
+    /** Events queued per subscriber; a subscriber that falls further behind is dropped. */
+    private int subscriberBuffer = 256;
+
+    /** Concurrent subscribers across all entities; more are refused with 503. */
+    private int maxSubscribers = 1000;
+
+    /** Comment line sent to idle subscribers so proxies keep the connection and dead clients are noticed. */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    /** Lifetime of one stream; the client then reconnects and resumes where it was. */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /** Reconnect delay suggested to clients (the SSE "retry" field). */
+    private Duration reconnectDelay = Duration.ofSeconds(2);
+}
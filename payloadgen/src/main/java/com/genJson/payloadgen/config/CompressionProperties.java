@@ -0,0 +1,21 @@
+package com.genJson.payloadgen.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+/**
+ * Decoding of compressed request bodies ({@code Content-Encoding: gzip} or
+ * {@code deflate}). Response compression is Spring Boot's
+ * {@code server.compression.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "payloadgen.compression")
+public class CompressionProperties {
+
+    private boolean requestDecoding = true;
+
+    /** Upper bound on a decoded request body, guarding against decompression bombs. */
+    private DataSize maxInflatedSize = DataSize.ofMegabytes(512);
+}
@@ -0,0 +1,66 @@
+package com.genJson.payloadgen.config;
+
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.genJson.payloadgen.service.routing.ReadWriteRoutingDataSource;
+import com.genJson.payloadgen.service.routing.ReplicaRouting;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool (from
+ * {@code spring.datasource.*}) and a replica pool (from
+ * {@code payloadgen.routing.replica.*}) behind a routing DataSource.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payloadgen.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+    static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+
+    /** Pools behind the routing DataSource; statements are counted once, in front of them. */
+    static final Set<String> ROUTING_TARGETS = Set.of(PRIMARY_DATA_SOURCE, REPLICA_DATA_SOURCE);
+
+    @Bean(PRIMARY_DATA_SOURCE)
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(REPLICA_DATA_SOURCE)
+    @ConfigurationProperties("payloadgen.routing.replica")
+    HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier(PRIMARY_DATA_SOURCE) DataSource primary,
+            @Qualifier(REPLICA_DATA_SOURCE) DataSource replica, ReplicaRouting routing) {
+        ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource(routing);
+        router.setTargetDataSources(Map.of(
+                ReplicaRouting.Target.PRIMARY, primary,
+                ReplicaRouting.Target.REPLICA, replica));
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        // Defers the routing decision from transaction begin to the first statement
+        return new LazyConnectionDataSourceProxy(router);
+    }
+}
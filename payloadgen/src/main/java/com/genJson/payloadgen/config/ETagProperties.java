@@ -0,0 +1,24 @@
+package com.genJson.payloadgen.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Conditional reads ({@code ETag} / {@code If-None-Match}) on read and find_all.
+ * Versions are in-memory counters bumped by this instance's writes, so changes
+ * made directly in the database or through another instance are not seen;
+ * disable it in those deployments.
+ */
+@Data
+@ConfigurationProperties(prefix = "payloadgen.etag")
+public class ETagProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Row versions remembered per entity. Rows pushed out share a per-entity floor,
+     * which only costs a spurious miss for them, never a stale 304.
+     */
+    private long maxTrackedRows = 100_000;
+}
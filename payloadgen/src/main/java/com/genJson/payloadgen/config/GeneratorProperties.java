@@ -0,0 +1,25 @@
+package com.genJson.payloadgen.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Settings for the synthetic payload generator.
+ */
+@Data
+@ConfigurationProperties(prefix = "payloadgen.generator")
+public class GeneratorProperties {
+
+    /** Upper bound on records per entity in one request. */
+    private long maxCount = 10_000_000;
+
+    /**
+     * Existing ids loaded per related entity type; generated relations pick from
+     * this sample (lowest ids first, so the choice is repeatable for a given table).
+     */
+    private int relationSampleSize = 10_000;
+
+    /** Domain of generated email addresses. */
+    private String emailDomain = "example.com";
+}
@@ -0,0 +1,42 @@
+package com.genJson.payloadgen.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+/**
+ * Settings for asynchronous bulk jobs ({@code /api/crud/jobs}): a fixed worker
+ * pool with a bounded queue, so large batches never hold a request thread and
+ * never take more than {@code threads} pooled connections at once.
+ */
+@Data
+@ConfigurationProperties(prefix = "payloadgen.jobs")
+public class JobProperties {
+
+    /** Jobs running at once; each holds at most one connection. Keep well below the connection pool size. */
+    private int threads = 2;
+
+    /** Accepted jobs waiting for a worker; further submissions are refused with 429. */
+    private int queueCapacity = 16;
+
+    /** Rows per transaction for payload jobs, unless the payload sets "chunkSize". */
+    private int chunkSize = 1000;
+
+    /** How long a finished job's status stays queryable. */
+    private Duration retention = Duration.ofHours(1);
+
+    /** Finished jobs kept at most; the oldest are forgotten first. */
+    private int maxRetained = 1000;
+
+    /** Directory for uploaded bodies waiting for a worker; the system temp directory when unset. */
+    private String spoolDirectory;
+
+    /** Largest upload accepted as a job. */
+    private DataSize maxUploadSize = DataSize.ofGigabytes(2);
+
+    /** Retry-After sent with a 429 when the queue is full. */
+    private Duration retryAfter = Duration.ofSeconds(5);
+}
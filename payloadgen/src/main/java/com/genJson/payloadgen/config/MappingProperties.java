@@ -0,0 +1,23 @@
+package com.genJson.payloadgen.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Settings for mapping payloads onto entities.
+ */
+@Data
+@ConfigurationProperties(prefix = "payloadgen.mapping")
+public class MappingProperties {
+
+    /**
+     * Resolve related ids to getReferenceById proxies instead of loading them.
+     * Saves the lookup query when only the foreign key is needed, but unknown ids
+     * are only reported by the database on flush.
+     */
+    private boolean relationReferences = false;
+
+    /** Ids per findAllById call when loading related entities. */
+    private int relationChunkSize = 5000;
+}
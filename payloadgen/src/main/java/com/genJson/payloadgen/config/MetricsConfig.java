@@ -0,0 +1,29 @@
+package com.genJson.payloadgen.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.genJson.payloadgen.service.metrics.StatementCountingDataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    // Static so the post-processor is registered before the DataSource is created
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Routing targets are reached through the routing DataSource, which is already counted
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)
+                        && !DataSourceRoutingConfig.ROUTING_TARGETS.contains(beanName)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
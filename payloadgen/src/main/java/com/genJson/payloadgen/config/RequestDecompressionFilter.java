@@ -0,0 +1,452 @@
+package com.genJson.payloadgen.config;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Inflates gzip/deflate request bodies so controllers (and the streaming
+ * ingest endpoint) read plain bytes. Decoding is streamed, for blocking and
+ * asynchronous ({@link ReadListener}) reads alike; the inflated size is capped
+ * by {@code payloadgen.compression.max-inflated-size}.
+ */
+@Component
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    private final CompressionProperties properties;
+
+    public RequestDecompressionFilter(CompressionProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isRequestDecoding() || encoding(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String encoding = encoding(request);
+        if (!encoding.equals("gzip") && !encoding.equals("x-gzip") && !encoding.equals("deflate")) {
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                    "Unsupported Content-Encoding '" + encoding + "'. Expected gzip or deflate");
+            return;
+        }
+        chain.doFilter(new DecodedRequest(request, encoding, properties.getMaxInflatedSize().toBytes()), response);
+    }
+
+    private static String encoding(HttpServletRequest request) {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || encoding.isBlank() || encoding.equalsIgnoreCase("identity")) {
+            return null;
+        }
+        return encoding.trim().toLowerCase();
+    }
+
+    private static final class DecodedRequest extends HttpServletRequestWrapper {
+
+        private final String encoding;
+        private final long maxInflatedSize;
+        private ServletInputStream stream;
+
+        DecodedRequest(HttpServletRequest request, String encoding, long maxInflatedSize) {
+            super(request);
+            this.encoding = encoding;
+            this.maxInflatedSize = maxInflatedSize;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                // Nothing is read here, so asynchronous readers can still register a listener first
+                stream = new InflatingServletInputStream(super.getInputStream(), !encoding.equals("deflate"),
+                        maxInflatedSize);
+            }
+            return stream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String charset = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    charset != null ? Charset.forName(charset) : StandardCharsets.UTF_8));
+        }
+
+        // The decoded length is unknown, and the encoding no longer applies downstream
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return null;
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return null;
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return Collections.emptyEnumeration();
+            }
+            return super.getHeaders(name);
+        }
+    }
+
+    /**
+     * Inflates the raw body as it arrives. Blocking reads pull compressed bytes on
+     * demand; with a {@link ReadListener} the stream is only ready while inflated
+     * bytes are buffered or the raw stream can be read without blocking, and the
+     * raw stream's callbacks are passed on to the listener.
+     */
+    private static final class InflatingServletInputStream extends ServletInputStream {
+
+        private final ServletInputStream raw;
+        private final Decoder decoder;
+        private final long limit;
+        private final byte[] compressed = new byte[8192];
+        private final byte[] inflated = new byte[8192];
+        private int inflatedPos;
+        private int inflatedEnd;
+        private long read;
+        private boolean finished;
+        private boolean async;
+        private IOException failure;
+
+        InflatingServletInputStream(ServletInputStream raw, boolean gzip, long limit) {
+            this.raw = raw;
+            this.decoder = new Decoder(gzip);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill(!async)) {
+                throw new IllegalStateException("Request body read while not ready");
+            }
+            return inflatedPos < inflatedEnd ? inflated[inflatedPos++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill(!async)) {
+                throw new IllegalStateException("Request body read while not ready");
+            }
+            if (inflatedPos == inflatedEnd) {
+                return -1;
+            }
+            int n = Math.min(length, inflatedEnd - inflatedPos);
+            System.arraycopy(inflated, inflatedPos, buffer, offset, n);
+            inflatedPos += n;
+            return n;
+        }
+
+        /**
+         * Inflates until output is buffered or the body ends; returns false only
+         * when more compressed input is needed and {@code mayBlock} is false while
+         * the raw stream is not ready.
+         */
+        private boolean fill(boolean mayBlock) throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            while (inflatedPos == inflatedEnd && !finished) {
+                int n = decoder.inflate(inflated);
+                if (n > 0) {
+                    inflatedPos = 0;
+                    inflatedEnd = n;
+                    read += n;
+                    if (read > limit) {
+                        throw new IOException("Decoded request body exceeds " + limit + " bytes");
+                    }
+                } else if (n < 0) {
+                    finished = true;
+                } else {
+                    int r;
+                    if (mayBlock || raw.isReady()) {
+                        r = raw.read(compressed);
+                    } else if (raw.isFinished()) {
+                        // A non-blocking read past the end is refused by the container
+                        r = -1;
+                    } else {
+                        return false;
+                    }
+                    if (r < 0) {
+                        if (!decoder.atEnd()) {
+                            throw new EOFException("Unexpected end of compressed request body");
+                        }
+                        finished = true;
+                    } else {
+                        decoder.setInput(compressed, r);
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished && inflatedPos == inflatedEnd;
+        }
+
+        @Override
+        public boolean isReady() {
+            if (!async) {
+                return true;
+            }
+            try {
+                return fill(false);
+            } catch (IOException e) {
+                // Surfaces from the next read
+                failure = e;
+                return true;
+            }
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            async = true;
+            raw.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    listener.onDataAvailable();
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    if (!isFinished()) {
+                        // The last compressed bytes may still be inflating
+                        listener.onDataAvailable();
+                    }
+                    listener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    listener.onError(t);
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            decoder.end();
+            raw.close();
+        }
+    }
+
+    /**
+     * zlib ({@code deflate}) or gzip decoding fed with whatever compressed bytes
+     * have arrived; gzip headers, trailers and concatenated members are parsed
+     * here because {@link Inflater} only handles the deflate data itself.
+     */
+    private static final class Decoder {
+
+        private enum State {
+            HEADER, BODY, TRAILER, MEMBER_END, DONE
+        }
+
+        private static final int MAX_HEADER = 64 * 1024;
+
+        private final boolean gzip;
+        private final Inflater inflater;
+        private final CRC32 crc = new CRC32();
+        private State state;
+        private byte[] input = new byte[0];
+        private int inputPos;
+        private int inputEnd;
+        private byte[] pending = new byte[32];
+        private int pendingLength;
+
+        Decoder(boolean gzip) {
+            this.gzip = gzip;
+            this.inflater = new Inflater(gzip);
+            this.state = gzip ? State.HEADER : State.BODY;
+        }
+
+        void setInput(byte[] buffer, int length) {
+            input = buffer;
+            inputPos = 0;
+            inputEnd = length;
+        }
+
+        /** True when the compressed body may end here. */
+        boolean atEnd() {
+            return state == State.MEMBER_END || state == State.DONE;
+        }
+
+        /** Inflated bytes written to {@code out}, 0 when more input is needed, -1 at the end. */
+        int inflate(byte[] out) throws IOException {
+            while (true) {
+                switch (state) {
+                    case HEADER -> {
+                        if (!readHeader()) {
+                            return 0;
+                        }
+                        pendingLength = 0;
+                        inflater.reset();
+                        crc.reset();
+                        state = State.BODY;
+                    }
+                    case BODY -> {
+                        if (inflater.needsInput() && inputPos < inputEnd) {
+                            inflater.setInput(input, inputPos, inputEnd - inputPos);
+                            inputPos = inputEnd;
+                        }
+                        int n;
+                        try {
+                            n = inflater.inflate(out);
+                        } catch (DataFormatException e) {
+                            throw new ZipException("Invalid compressed request body: " + e.getMessage());
+                        }
+                        if (n > 0) {
+                            if (gzip) {
+                                crc.update(out, 0, n);
+                            }
+                            return n;
+                        }
+                        if (inflater.finished()) {
+                            // Whatever the inflater did not consume belongs to the trailer
+                            inputPos = inputEnd - inflater.getRemaining();
+                            state = gzip ? State.TRAILER : State.DONE;
+                        } else if (inflater.needsDictionary()) {
+                            throw new ZipException("Compressed request bodies with a preset dictionary are not supported");
+                        } else {
+                            return 0;
+                        }
+                    }
+                    case TRAILER -> {
+                        while (pendingLength < 8 && take()) {
+                            // Collecting CRC32 and ISIZE
+                        }
+                        if (pendingLength < 8) {
+                            return 0;
+                        }
+                        if (intAt(0) != crc.getValue() || intAt(4) != (inflater.getBytesWritten() & 0xffffffffL)) {
+                            throw new ZipException("Corrupt gzip trailer");
+                        }
+                        pendingLength = 0;
+                        state = State.MEMBER_END;
+                    }
+                    case MEMBER_END -> {
+                        if (inputPos == inputEnd) {
+                            return 0;
+                        }
+                        // Concatenated gzip members decode as one body
+                        state = State.HEADER;
+                    }
+                    case DONE -> {
+                        return -1;
+                    }
+                }
+            }
+        }
+
+        private boolean readHeader() throws IOException {
+            while (take()) {
+                if (headerComplete()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Moves one input byte into pending; false when the input is used up
+        private boolean take() throws IOException {
+            if (inputPos == inputEnd) {
+                return false;
+            }
+            if (pendingLength == pending.length) {
+                if (pending.length >= MAX_HEADER) {
+                    throw new ZipException("gzip header too large");
+                }
+                pending = Arrays.copyOf(pending, pending.length * 2);
+            }
+            pending[pendingLength++] = input[inputPos++];
+            return true;
+        }
+
+        private boolean headerComplete() throws IOException {
+            int length = pendingLength;
+            if (length == 3 && ((pending[0] & 0xff) != 0x1f || (pending[1] & 0xff) != 0x8b || pending[2] != 8)) {
+                throw new ZipException("Not in gzip format");
+            }
+            if (length < 10) {
+                return false;
+            }
+            int flags = pending[3];
+            int end = 10;
+            if ((flags & 4) != 0) {
+                if (length < end + 2) {
+                    return false;
+                }
+                end += 2 + ((pending[end] & 0xff) | (pending[end + 1] & 0xff) << 8);
+            }
+            if ((flags & 8) != 0) {
+                end = afterZero(end, length);
+            }
+            if ((flags & 16) != 0 && end > 0) {
+                end = afterZero(end, length);
+            }
+            if ((flags & 2) != 0 && end > 0) {
+                end += 2;
+            }
+            return end > 0 && length == end;
+        }
+
+        // Index after the zero byte terminating a string field, or -1 while it is incomplete
+        private int afterZero(int from, int length) {
+            for (int i = from; i < length; i++) {
+                if (pending[i] == 0) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        private long intAt(int offset) {
+            return (pending[offset] & 0xffL) | (pending[offset + 1] & 0xffL) << 8
+                    | (pending[offset + 2] & 0xffL) << 16 | (pending[offset + 3] & 0xffL) << 24;
+        }
+
+        void end() {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.genJson.payloadgen.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Read/write routing: read, find_all and export run on a replica, everything
+ * else on the primary. The replica pool itself is configured under
+ * {@code payloadgen.routing.replica.*} (Hikari property names).
+ */
+@Data
+@ConfigurationProperties(prefix = "payloadgen.routing")
+public class RoutingProperties {
+
+    private boolean enabled = false;
+
+    /** Send a caller's reads to the primary for {@code pinWindow} after it wrote. */
+    private boolean readYourWrites = true;
+
+    private Duration pinWindow = Duration.ofSeconds(5);
+
+    /** Request header identifying a caller for read-your-writes; the client address when absent. */
+    private String callerHeader = "X-Client-Id";
+
+    /**
+     * Expected replication lag. Replica reads of an entity changed within this
+     * window bypass the findById cache and carry no ETag, so a lagging row is
+     * never cached or validated as current.
+     */
+    private Duration replicaLag = Duration.ofSeconds(1);
+
+    /** Callers with an active read-your-writes pin, at most. */
+    private int maxPinnedCallers = 100_000;
+}
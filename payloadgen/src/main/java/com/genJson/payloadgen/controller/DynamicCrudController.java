@@ -1,18 +1,43 @@
 package com.genJson.payloadgen.controller;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genJson.payloadgen.service.BulkJobService;
+import com.genJson.payloadgen.service.BulkTransferService;
 import com.genJson.payloadgen.service.GenericCrudService;
+import com.genJson.payloadgen.service.PayloadGeneratorService;
+import com.genJson.payloadgen.service.admission.AdmissionLimiter;
+import com.genJson.payloadgen.service.admission.AdmissionRejectedException;
+import com.genJson.payloadgen.service.change.ChangeFeed;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 @CrossOrigin(origins = "*")
 @RestController
@@ -20,17 +45,157 @@ import com.genJson.payloadgen.service.GenericCrudService;
 public class DynamicCrudController {
 
     private final GenericCrudService crudService;
+    private final BulkTransferService bulkTransferService;
+    private final PayloadGeneratorService generatorService;
+    private final ChangeFeed changeFeed;
+    private final BulkJobService jobService;
+    private final AdmissionLimiter admission;
+    private final ObjectMapper objectMapper;
 
-    public DynamicCrudController(GenericCrudService crudService) {
+    public DynamicCrudController(GenericCrudService crudService, BulkTransferService bulkTransferService,
+            PayloadGeneratorService generatorService, ChangeFeed changeFeed, BulkJobService jobService,
+            AdmissionLimiter admission, ObjectMapper objectMapper) {
         this.crudService = crudService;
+        this.bulkTransferService = bulkTransferService;
+        this.generatorService = generatorService;
+        this.changeFeed = changeFeed;
+        this.jobService = jobService;
+        this.admission = admission;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/create_or_update")
     public ResponseEntity<?> createOrUpdate(@RequestBody Object payload) {
         try {
             Map<String, Object> processedPayload = preparePayload(payload);
-            Object result = crudService.saveOrUpdate(processedPayload);
+            try (AdmissionLimiter.Permit permit = admission.acquire("create_or_update", processedPayload)) {
+                Object result = crudService.saveOrUpdate(processedPayload);
+                return ResponseEntity.ok(result);
+            }
+        } catch (AdmissionRejectedException e) {
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage(),
+                    "status", "failed"));
+        }
+    }
+
+    // Streams NDJSON or a JSON array straight from the request body; the body is
+    // never bound as a whole, so large uploads are written chunk by chunk
+    @PostMapping(value = "/ingest", consumes = { MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_JSON_VALUE, "application/x-jackson-smile", MediaType.APPLICATION_CBOR_VALUE })
+    public ResponseEntity<?> ingest(@RequestParam(required = false) String entity,
+            @RequestParam(required = false) Integer chunkSize,
+            HttpServletRequest request) {
+        try (AdmissionLimiter.Permit permit = admission.acquireBulk(entity)) {
+            Object result = bulkTransferService.ingest(entity, request.getInputStream(), request.getContentType(),
+                    chunkSize);
             return ResponseEntity.ok(result);
+        } catch (AdmissionRejectedException e) {
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage(),
+                    "status", "failed"));
+        }
+    }
+
+    // Streams a whole entity table as NDJSON or CSV from a single cursor-backed query
+    @GetMapping("/export/{entity}")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String entity,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) {
+        try {
+            BulkTransferService.ExportStream export = bulkTransferService.export(entity, format);
+            AdmissionLimiter.Permit permit = holdUntilStreamed(request, admission.acquireBulk(entity));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(export.contentType()))
+                    .body(out -> {
+                        try (permit) {
+                            export.writeTo(out);
+                        }
+                    });
+        } catch (AdmissionRejectedException e) {
+            return rejectedStream(e);
+        } catch (Exception e) {
+            Map<String, Object> error = Map.of(
+                    "error", e.getMessage(),
+                    "status", "failed");
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
+        }
+    }
+
+    // Streams seed-reproducible synthetic records as NDJSON (e.g. as an /ingest body)
+    @GetMapping("/generate/{entity}")
+    public ResponseEntity<StreamingResponseBody> generate(@PathVariable String entity,
+            @RequestParam(defaultValue = "1000") long count,
+            @RequestParam(defaultValue = "0") long seed,
+            @RequestParam(defaultValue = "0") long offset,
+            HttpServletRequest request) {
+        try {
+            BulkTransferService.ExportStream records = generatorService.stream(entity, count, seed, offset);
+            AdmissionLimiter.Permit permit = holdUntilStreamed(request, admission.acquireBulk(entity));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(records.contentType()))
+                    .body(out -> {
+                        try (permit) {
+                            records.writeTo(out);
+                        }
+                    });
+        } catch (AdmissionRejectedException e) {
+            return rejectedStream(e);
+        } catch (Exception e) {
+            Map<String, Object> error = Map.of(
+                    "error", e.getMessage(),
+                    "status", "failed");
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
+        }
+    }
+
+    // Generates records straight into the database; all registered entities when none is given
+    @PostMapping("/generate")
+    public ResponseEntity<?> populate(@RequestParam(required = false) String entity,
+            @RequestParam(defaultValue = "1000") long count,
+            @RequestParam(defaultValue = "0") long seed,
+            @RequestParam(defaultValue = "0") long offset,
+            @RequestParam(required = false) Integer chunkSize) {
+        try (AdmissionLimiter.Permit permit = admission.acquireBulk(entity)) {
+            return ResponseEntity.ok(generatorService.populate(entity, count, seed, offset, chunkSize));
+        } catch (AdmissionRejectedException e) {
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage(),
+                    "status", "failed"));
+        }
+    }
+
+    // Background create_or_update/delete batch: 202 with the job id, 429 when the job queue is full
+    @PostMapping("/jobs/{operation}")
+    public ResponseEntity<?> submitJob(@PathVariable String operation, @RequestBody Object payload) {
+        try {
+            return accepted(jobService.submit(operation, preparePayload(payload)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage(),
+                    "status", "failed"));
+        }
+    }
+
+    // Background ingest: the body is spooled to disk and the request returns before any row is written
+    @PostMapping(value = "/jobs/upload", consumes = { MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_JSON_VALUE, "application/x-jackson-smile", MediaType.APPLICATION_CBOR_VALUE })
+    public ResponseEntity<?> submitUploadJob(@RequestParam(required = false) String entity,
+            @RequestParam(required = false) Integer chunkSize,
+            HttpServletRequest request) {
+        try {
+            return accepted(jobService.submitUpload(entity, request.getInputStream(), request.getContentType(),
+                    chunkSize));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "error", e.getMessage(),
@@ -38,16 +203,71 @@ public class DynamicCrudController {
         }
     }
 
+    @GetMapping("/jobs")
+    public ResponseEntity<?> jobs() {
+        return ResponseEntity.ok(jobService.list());
+    }
+
+    // Rows done, failures and throughput so far
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> job(@PathVariable String jobId) {
+        Map<String, Object> status = jobService.status(jobId);
+        return status != null ? ResponseEntity.ok(status) : jobNotFound(jobId);
+    }
+
+    // A running job stops after its current chunk; committed chunks are kept
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<?> cancelJob(@PathVariable String jobId) {
+        Map<String, Object> status = jobService.cancel(jobId);
+        return status != null ? ResponseEntity.ok(status) : jobNotFound(jobId);
+    }
+
+    // Single UPDATE of the supplied columns; 404 when no row matched, 409 on a stale version
+    @SuppressWarnings("unchecked")
+    @PatchMapping("/patch")
+    public ResponseEntity<?> patch(@RequestBody Map<String, Object> payload) {
+        try (AdmissionLimiter.Permit permit = admission.acquire("patch", payload)) {
+            Map<String, Object> result = (Map<String, Object>) crudService.patch(payload);
+            return switch ((String) result.get("status")) {
+                case "not_found" -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+                case "conflict" -> ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+                default -> ResponseEntity.ok(result);
+            };
+        } catch (AdmissionRejectedException e) {
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage(),
+                    "status", "failed"));
+        }
+    }
+
+    // Both reads answer If-None-Match with 304 from the in-memory change counters,
+    // before any query runs
     @GetMapping("/read")
-    public ResponseEntity<?> read(@RequestBody Map<String, Object> payload) {
-        return ResponseEntity.ok(crudService.findById(payload));
+    public ResponseEntity<?> read(@RequestBody Map<String, Object> payload, HttpServletRequest request) {
+        String etag = crudService.etag("read", payload);
+        if (notModified(request, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        try (AdmissionLimiter.Permit permit = admission.acquire("read", payload)) {
+            return ResponseEntity.ok().eTag(etag).body(crudService.findById(payload));
+        }
     }
 
     @PostMapping("/find_all")
-    public ResponseEntity<?> findAll(@RequestBody Map<String, Object> payload) {
+    public ResponseEntity<?> findAll(@RequestBody Map<String, Object> payload, HttpServletRequest request) {
         try {
-            Object result = crudService.findAll(payload);
-            return ResponseEntity.ok(result);
+            String etag = crudService.etag("find_all", payload);
+            if (notModified(request, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            try (AdmissionLimiter.Permit permit = admission.acquire("find_all", payload)) {
+                Object result = crudService.findAll(payload);
+                return ResponseEntity.ok().eTag(etag).body(result);
+            }
+        } catch (AdmissionRejectedException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "error", e.getMessage(),
@@ -55,9 +275,103 @@ public class DynamicCrudController {
         }
     }
 
+    // Server-sent change events committed for one entity. EventSource resends Last-Event-ID
+    // on reconnect; the query parameter covers clients that cannot set the header
+    @GetMapping(value = "/changes/{entity}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@PathVariable String entity,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId) {
+        try {
+            return changeFeed.subscribe(entity, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> cacheStats() {
+        return ResponseEntity.ok(crudService.cacheStats());
+    }
+
+    // Current concurrency limit and calls in flight per entity
+    @GetMapping("/admission/stats")
+    public ResponseEntity<?> admissionStats() {
+        return ResponseEntity.ok(admission.stats());
+    }
+
     @DeleteMapping("/delete")
     public ResponseEntity<?> delete(@RequestBody Map<String, Object> payload) {
-        return ResponseEntity.ok(crudService.delete(payload));
+        try (AdmissionLimiter.Permit permit = admission.acquire("delete", payload)) {
+            return ResponseEntity.ok(crudService.delete(payload));
+        }
+    }
+
+    // Over the entity's concurrency limit: refused before any work, with a retry hint
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<?> tooManyRequests(AdmissionRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                .body(Map.of(
+                        "error", e.getMessage(),
+                        "status", "rejected"));
+    }
+
+    // A streamed body outlives the handler: the permit is held until the last row is written, and the
+    // async interceptor also releases it when the stream times out or fails before the body runs
+    private static AdmissionLimiter.Permit holdUntilStreamed(HttpServletRequest request,
+            AdmissionLimiter.Permit permit) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(AdmissionLimiter.class,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        permit.close();
+                    }
+                });
+        return permit;
+    }
+
+    private ResponseEntity<StreamingResponseBody> rejectedStream(AdmissionRejectedException e) {
+        Map<String, Object> error = Map.of(
+                "error", e.getMessage(),
+                "status", "rejected");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, error));
+    }
+
+    private static ResponseEntity<?> accepted(Map<String, Object> job) {
+        if ("rejected".equals(job.get("status"))) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(job.get("retryAfter")))
+                    .body(job);
+        }
+        return ResponseEntity.accepted().location(URI.create("/api/crud/jobs/" + job.get("jobId"))).body(job);
+    }
+
+    private static ResponseEntity<?> jobNotFound(String jobId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                "error", "Unknown or expired job " + jobId,
+                "status", "failed"));
+    }
+
+    // Weak comparison (RFC 9110 13.1.2); find_all is a POST, so Spring's
+    // checkNotModified would answer 412 instead of 304
+    private static boolean notModified(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (etag == null || header == null) {
+            return false;
+        }
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @SuppressWarnings("unchecked")
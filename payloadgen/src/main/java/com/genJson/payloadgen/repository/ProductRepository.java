@@ -1,9 +1,10 @@
 package com.genJson.payloadgen.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import com.genJson.payloadgen.model.Product;
 
-public interface ProductRepository extends JpaRepository<Product,Long>{
+public interface ProductRepository extends JpaRepository<Product,Long>, JpaSpecificationExecutor<Product>{
     
 }
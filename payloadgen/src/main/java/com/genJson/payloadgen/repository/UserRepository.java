@@ -1,9 +1,10 @@
 package com.genJson.payloadgen.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import com.genJson.payloadgen.model.User;
 
-public interface UserRepository extends JpaRepository<User,Long>{
+public interface UserRepository extends JpaRepository<User,Long>, JpaSpecificationExecutor<User>{
     
 }
@@ -0,0 +1,38 @@
+package com.genJson.payloadgen.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs large create_or_update and delete batches in the background. Submission
+ * returns the job's status right away; its "status" is "rejected" when the
+ * queue is full.
+ */
+public interface BulkJobService {
+    /**
+     * Queues a create_or_update ({@code data} list) or delete ({@code ids} list)
+     * payload. The payload is validated before the job is accepted.
+     */
+    Map<String, Object> submit(String operation, Map<String, Object> payload);
+
+    /**
+     * Spools {@code body} (any format {@code /ingest} accepts) to disk and queues
+     * it as an ingest job, so the upload does not wait for the database.
+     */
+    Map<String, Object> submitUpload(String entityName, InputStream body, String contentType, Integer chunkSize)
+            throws IOException;
+
+    /** Progress of one job, or null when the id is unknown or has expired. */
+    Map<String, Object> status(String jobId);
+
+    /** Queued, running and recently finished jobs, newest first. */
+    List<Map<String, Object>> list();
+
+    /**
+     * Cancels a queued job at once; a running one stops after its current chunk,
+     * keeping the chunks already committed. Null when the id is unknown.
+     */
+    Map<String, Object> cancel(String jobId);
+}
@@ -0,0 +1,41 @@
+package com.genJson.payloadgen.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface BulkTransferService {
+    /**
+     * Streams rows from {@code body}: JSON/NDJSON, or Smile/CBOR when
+     * {@code contentType} says so (a sequence of root values or one array).
+     */
+    Object ingest(String entityName, InputStream body, String contentType, Integer chunkSize) throws IOException;
+
+    /**
+     * Same as {@link #ingest(String, InputStream, String, Integer)}, reporting
+     * running totals to {@code listener} after every chunk; the ingest stops
+     * with status "cancelled" once the listener returns false.
+     */
+    Object ingest(String entityName, InputStream body, String contentType, Integer chunkSize,
+            ChunkListener listener) throws IOException;
+
+    /**
+     * Validates the request up front and returns a writer that streams the whole
+     * table in the requested format (ndjson or csv).
+     */
+    ExportStream export(String entityName, String format);
+
+    @FunctionalInterface
+    interface ChunkListener {
+        ChunkListener NONE = (received, written, failed) -> true;
+
+        /** Totals so far; returning false stops the ingest after the chunk just written. */
+        boolean afterChunk(long received, long written, long failed);
+    }
+
+    interface ExportStream {
+        String contentType();
+
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
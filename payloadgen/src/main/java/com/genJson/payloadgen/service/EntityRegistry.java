@@ -1,5 +1,7 @@
 package com.genJson.payloadgen.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Component;
 
@@ -7,28 +9,81 @@ import com.genJson.payloadgen.model.Product;
 import com.genJson.payloadgen.model.User;
 import com.genJson.payloadgen.repository.ProductRepository;
 import com.genJson.payloadgen.repository.UserRepository;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+import com.genJson.payloadgen.service.metadata.FieldAccessor;
 
-import java.lang.reflect.Field;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Component
 public class EntityRegistry {
 
-    private final Map<String, Class<?>> entityClasses = new HashMap<>();
+    private static final Logger log = LoggerFactory.getLogger(EntityRegistry.class);
+
+    // Distinct payload key sets remembered by guessEntityByPayload
+    private static final int GUESS_CACHE_SIZE = 1024;
+    private static final Class<?> NO_MATCH = Void.class;
+
+    private final Map<String, Class<?>> entityClasses = new LinkedHashMap<>();
     private final Map<String, JpaRepository<?, ?>> repositories = new HashMap<>();
+    private final Map<Class<?>, JpaRepository<?, ?>> repositoriesByClass = new HashMap<>();
+
+    // Inverted index for entity guessing: lowercased field name -> positions in
+    // guessCandidates (registration order, which also breaks score ties)
+    private final List<Class<?>> guessCandidates = new ArrayList<>();
+    private final List<Integer> guessFieldCounts = new ArrayList<>();
+    private final Map<String, int[]> fieldIndex = new HashMap<>();
+
+    // Payload key set -> guessed class (NO_MATCH when nothing qualified), LRU bounded
+    private final Map<Set<String>, Class<?>> guessCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Set<String>, Class<?>> eldest) {
+                    return size() > GUESS_CACHE_SIZE;
+                }
+            });
+
+    // Metadata is computed once per class: eagerly for registered entities,
+    // lazily for nested/embedded types reached while mapping payloads
+    private final ClassValue<EntityMetadata> metadata = new ClassValue<>() {
+        @Override
+        protected EntityMetadata computeValue(Class<?> type) {
+            return EntityMetadata.of(type);
+        }
+    };
 
     public EntityRegistry(UserRepository userRepo, ProductRepository productRepo) {
         // Register all entity → repository pairs
         registerEntity("user", User.class, userRepo);
         registerEntity("product", Product.class, productRepo);
 
-        System.out.println("✅ Registered entities: " + entityClasses.keySet());
+        log.info("Registered entities: {}", entityClasses.keySet());
     }
 
     private void registerEntity(String name, Class<?> entityClass, JpaRepository<?, ?> repository) {
         entityClasses.put(name.toLowerCase(), entityClass);
         repositories.put(name.toLowerCase(), repository);
+        repositoriesByClass.putIfAbsent(entityClass, repository);
+        indexFields(metadata.get(entityClass));
+    }
+
+    private void indexFields(EntityMetadata meta) {
+        int position = guessCandidates.size();
+        guessCandidates.add(meta.getEntityClass());
+
+        Set<String> names = new HashSet<>();
+        for (FieldAccessor field : meta.getFields()) {
+            names.add(field.getName().toLowerCase());
+        }
+        guessFieldCounts.add(names.size());
+
+        for (String name : names) {
+            fieldIndex.merge(name, new int[] { position }, (existing, added) -> {
+                int[] merged = Arrays.copyOf(existing, existing.length + 1);
+                merged[existing.length] = position;
+                return merged;
+            });
+        }
+        guessCache.clear();
     }
 
     public Class<?> getEntityClass(String name) {
@@ -41,45 +96,87 @@ public class EntityRegistry {
         return repositories.get(name.toLowerCase());
     }
 
+    /**
+     * Precomputed accessors for the given class (registered entity or nested type).
+     */
+    public EntityMetadata getMetadata(Class<?> entityClass) {
+        if (entityClass == null) return null;
+        return metadata.get(entityClass);
+    }
+
+    public EntityMetadata getMetadata(String name) {
+        return getMetadata(getEntityClass(name));
+    }
+
     /**
      * Try to infer entity type based on payload keys.
      * Returns null if no good match is found.
+     * <p>
+     * Repeated payload shapes are answered from a bounded cache keyed by the
+     * key set; new shapes cost one index lookup per payload key.
      */
     public Class<?> guessEntityByPayload(Map<String, Object> payload) {
         if (payload == null || payload.isEmpty()) {
             return null;
         }
 
-        Class<?> bestMatch = null;
-        double bestScore = 0;
-
-        for (Map.Entry<String, Class<?>> entry : entityClasses.entrySet()) {
-            Class<?> clazz = entry.getValue();
-            Set<String> entityFields = Arrays.stream(clazz.getDeclaredFields())
-                    .map(Field::getName)
-                    .map(String::toLowerCase)
-                    .collect(Collectors.toSet());
+        Set<String> keys = payload.keySet();
+        Class<?> cached = guessCache.get(keys);
+        if (cached == null) {
+            cached = scorePayloadKeys(keys);
+            guessCache.put(Set.copyOf(keys), cached);
+        }
+        return cached == NO_MATCH ? null : cached;
+    }
 
-            long matchCount = payload.keySet().stream()
-                    .map(String::toLowerCase)
-                    .filter(entityFields::contains)
-                    .count();
+    private Class<?> scorePayloadKeys(Set<String> keys) {
+        int[] matchCounts = new int[guessCandidates.size()];
+        for (String key : keys) {
+            int[] candidates = fieldIndex.get(key.toLowerCase());
+            if (candidates != null) {
+                for (int candidate : candidates) {
+                    matchCounts[candidate]++;
+                }
+            }
+        }
 
-            double score = (double) matchCount / entityFields.size();
+        int best = -1;
+        double bestScore = 0;
+        List<Class<?>> tied = null;
+        for (int i = 0; i < matchCounts.length; i++) {
+            int matchCount = matchCounts[i];
+            double score = (double) matchCount / guessFieldCounts.get(i);
 
             // Require at least 2 field matches OR >50% similarity
-            if ((matchCount >= 2 || score > 0.5) && score > bestScore) {
+            if (!(matchCount >= 2 || score > 0.5)) {
+                continue;
+            }
+            if (score > bestScore) {
+                best = i;
                 bestScore = score;
-                bestMatch = clazz;
+                tied = null;
+            } else if (score == bestScore) {
+                if (tied == null) {
+                    tied = new ArrayList<>();
+                    tied.add(guessCandidates.get(best));
+                }
+                tied.add(guessCandidates.get(i));
             }
         }
 
-        if (bestMatch == null) {
-            System.err.println("⚠️  Unable to determine entity type from payload fields: " + payload.keySet());
-        } else {
-            System.out.println("🔍 Guessed entity: " + bestMatch.getSimpleName());
+        if (best < 0) {
+            log.warn("Unable to determine entity type from payload fields: {}", keys);
+            return NO_MATCH;
         }
 
+        Class<?> bestMatch = guessCandidates.get(best);
+        if (tied != null) {
+            // Earliest registration wins a tie
+            log.warn("Ambiguous payload fields {} match {} equally; using {}", keys,
+                    tied.stream().map(Class::getSimpleName).toList(), bestMatch.getSimpleName());
+        } else {
+            log.debug("Guessed entity {} for payload fields {}", bestMatch.getSimpleName(), keys);
+        }
         return bestMatch;
     }
 
@@ -90,10 +187,9 @@ public class EntityRegistry {
         if (entityClass == null) return null;
 
         // First try by exact mapping
-        for (Map.Entry<String, Class<?>> entry : entityClasses.entrySet()) {
-            if (entry.getValue().equals(entityClass)) {
-                return repositories.get(entry.getKey());
-            }
+        JpaRepository<?, ?> repository = repositoriesByClass.get(entityClass);
+        if (repository != null) {
+            return repository;
         }
 
         // Fallback: try by name similarity
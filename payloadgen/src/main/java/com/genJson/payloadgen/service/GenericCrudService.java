@@ -5,9 +5,20 @@ import java.util.Map;
 public interface GenericCrudService {
     Object saveOrUpdate(Map<String, Object> payload);
 
+    Object patch(Map<String, Object> payload);
+
     Object findById(Map<String, Object> payload);
 
     Object delete(Map<String, Object> payload);
 
     Object findAll(Map<String, Object> payload);
+
+    Object cacheStats();
+
+    /**
+     * Weak ETag for a "read" or "find_all" request, taken from in-memory change
+     * counters without touching the database; {@code null} when disabled or the
+     * request cannot be resolved.
+     */
+    String etag(String operation, Map<String, Object> payload);
 }
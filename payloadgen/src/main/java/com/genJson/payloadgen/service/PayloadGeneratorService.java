@@ -0,0 +1,17 @@
+package com.genJson.payloadgen.service;
+
+public interface PayloadGeneratorService {
+    /**
+     * Validates the request and returns a writer that streams {@code count}
+     * generated records as NDJSON. Record {@code i} depends only on the seed, the
+     * entity and {@code offset + i}, so the same request yields the same output.
+     */
+    BulkTransferService.ExportStream stream(String entityName, long count, long seed, long offset);
+
+    /**
+     * Generates {@code count} records per entity (all registered entities when
+     * {@code entityName} is null, related types first) and writes them through
+     * the bulk write path in chunks.
+     */
+    Object populate(String entityName, long count, long seed, long offset, Integer chunkSize);
+}
@@ -0,0 +1,231 @@
+package com.genJson.payloadgen.service.admission;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.stereotype.Component;
+
+import com.genJson.payloadgen.config.AdmissionProperties;
+import com.genJson.payloadgen.service.EntityRegistry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Admission control in front of the CRUD and bulk services. Every entity has
+ * its own adaptive concurrency limit (AIMD on call latency); a call that would
+ * exceed it is refused at once instead of queueing for a request thread or a
+ * pooled connection. Bulk calls are additionally capped at a share of the
+ * limit, so reads and single-row writes always have room; their latency, which
+ * scales with the data, does not move the limit.
+ * <p>
+ * Meters: {@code payloadgen.admission.limit} and {@code .inflight} per entity,
+ * {@code payloadgen.admission.rejected} per entity and kind.
+ */
+@Component
+public class AdmissionLimiter {
+
+    private static final String UNKNOWN = "unknown";
+
+    public enum Kind {
+        READ, WRITE, BULK
+    }
+
+    /**
+     * Releases the slot and feeds the call's latency back into the limit. Closing
+     * more than once releases only once.
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        Permit UNLIMITED = () -> {
+        };
+
+        @Override
+        void close();
+    }
+
+    private final EntityRegistry registry;
+    private final AdmissionProperties properties;
+    private final MeterRegistry meters;
+    private final Map<String, EntityLimit> limits = new ConcurrentHashMap<>();
+
+    public AdmissionLimiter(EntityRegistry registry, AdmissionProperties properties, MeterRegistry meters) {
+        this.registry = registry;
+        this.properties = properties;
+        this.meters = meters;
+    }
+
+    /**
+     * Admits a CRUD call, classifying it from the operation and the payload
+     * (list payloads, multi-id deletes and large pages are bulk).
+     *
+     * @throws AdmissionRejectedException when the entity is at its limit
+     */
+    public Permit acquire(String operation, Map<String, Object> payload) {
+        if (!properties.isEnabled()) {
+            return Permit.UNLIMITED;
+        }
+        return acquire(entityOf(payload), kindOf(operation, payload));
+    }
+
+    /**
+     * Admits a streaming bulk call (ingest, export, generate) for {@code entityName}.
+     *
+     * @throws AdmissionRejectedException when the entity is at its limit
+     */
+    public Permit acquireBulk(String entityName) {
+        if (!properties.isEnabled()) {
+            return Permit.UNLIMITED;
+        }
+        Class<?> entityClass = registry.getEntityClass(entityName);
+        return acquire(entityClass != null ? entityClass.getSimpleName() : UNKNOWN, Kind.BULK);
+    }
+
+    Permit acquire(String entity, Kind kind) {
+        EntityLimit limit = limits.computeIfAbsent(entity, EntityLimit::new);
+        int inflight = limit.tryAcquire(kind);
+        if (inflight < 0) {
+            limit.rejected(kind).increment();
+            throw new AdmissionRejectedException("Too many concurrent " + kind.name().toLowerCase()
+                    + " requests for " + entity + " (limit " + limit.currentLimit() + ")", properties.getRetryAfter());
+        }
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                limit.release(kind, System.nanoTime() - start, inflight);
+            }
+        };
+    }
+
+    /** Current limit and calls in flight per entity. */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new TreeMap<>();
+        limits.forEach((entity, limit) -> stats.put(entity, limit.snapshot()));
+        return stats;
+    }
+
+    private Kind kindOf(String operation, Map<String, Object> payload) {
+        return switch (operation) {
+            case "read" -> Kind.READ;
+            case "find_all" -> size(payload.get("size")) > properties.getBulkPageSize() ? Kind.BULK : Kind.READ;
+            case "create_or_update" -> payload.get("data") instanceof List<?> rows && rows.size() > 1
+                    ? Kind.BULK : Kind.WRITE;
+            case "delete" -> payload.get("ids") instanceof List<?> ids && ids.size() > 1 ? Kind.BULK : Kind.WRITE;
+            default -> Kind.WRITE;
+        };
+    }
+
+    private static long size(Object value) {
+        try {
+            return value instanceof Number number ? number.longValue()
+                    : value != null ? Long.parseLong(value.toString()) : 0;
+        } catch (NumberFormatException e) {
+            // The service rejects it; admission only needs a rough size
+            return 0;
+        }
+    }
+
+    // Same resolution as the service, but never throws: unresolvable payloads share one bucket
+    @SuppressWarnings("unchecked")
+    private String entityOf(Map<String, Object> payload) {
+        Object name = payload.get("entity");
+        Class<?> entityClass = null;
+        if (name instanceof String entityName) {
+            entityClass = registry.getEntityClass(entityName);
+        } else {
+            Object data = payload.get("data");
+            if (data instanceof List<?> rows && !rows.isEmpty()) {
+                data = rows.get(0);
+            }
+            Map<String, Object> sample = data instanceof Map<?, ?> map ? (Map<String, Object>) map : payload;
+            entityClass = registry.guessEntityByPayload(sample);
+        }
+        return entityClass != null ? entityClass.getSimpleName() : UNKNOWN;
+    }
+
+    private final class EntityLimit {
+        private final int[] inflightByKind = new int[Kind.values().length];
+        private final Map<Kind, Counter> rejections = new ConcurrentHashMap<>();
+        private final String entity;
+        private volatile double limit;
+        private volatile int inflight;
+
+        EntityLimit(String entity) {
+            this.entity = entity;
+            this.limit = properties.getInitialLimit();
+            Gauge.builder("payloadgen.admission.limit", this, current -> current.limit)
+                    .description("Adaptive concurrency limit")
+                    .tag("entity", entity)
+                    .register(meters);
+            Gauge.builder("payloadgen.admission.inflight", this, current -> current.inflight)
+                    .description("Admitted calls in flight")
+                    .tag("entity", entity)
+                    .register(meters);
+        }
+
+        /** Calls in flight including this one, or -1 when refused. */
+        synchronized int tryAcquire(Kind kind) {
+            int cap = currentLimit();
+            if (inflight >= cap) {
+                return -1;
+            }
+            if (kind == Kind.BULK
+                    && inflightByKind[Kind.BULK.ordinal()] >= Math.max(1, (int) (cap * properties.getBulkShare()))) {
+                return -1;
+            }
+            inflightByKind[kind.ordinal()]++;
+            return ++inflight;
+        }
+
+        synchronized void release(Kind kind, long nanos, int inflightAtStart) {
+            inflight--;
+            inflightByKind[kind.ordinal()]--;
+            if (kind == Kind.BULK) {
+                // Bulk duration grows with the data, not with database pressure; the share caps it instead
+                return;
+            }
+            if (nanos > target(kind)) {
+                limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+            } else if (inflightAtStart * 2 >= limit) {
+                // Only grow while the limit is actually being used
+                limit = Math.min(properties.getMaxLimit(), limit + 1);
+            }
+        }
+
+        int currentLimit() {
+            return (int) limit;
+        }
+
+        Counter rejected(Kind kind) {
+            return rejections.computeIfAbsent(kind, key -> Counter.builder("payloadgen.admission.rejected")
+                    .description("Calls refused at the concurrency limit")
+                    .tag("entity", entity)
+                    .tag("kind", key.name().toLowerCase())
+                    .register(meters));
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("limit", currentLimit());
+            snapshot.put("inflight", inflight);
+            for (Kind kind : Kind.values()) {
+                snapshot.put(kind.name().toLowerCase(), inflightByKind[kind.ordinal()]);
+            }
+            Map<String, Object> rejected = new LinkedHashMap<>();
+            rejections.forEach((kind, counter) -> rejected.put(kind.name().toLowerCase(), (long) counter.count()));
+            snapshot.put("rejected", rejected);
+            return snapshot;
+        }
+
+        private long target(Kind kind) {
+            return kind == Kind.READ ? properties.getReadLatencyTarget().toNanos()
+                    : properties.getWriteLatencyTarget().toNanos();
+        }
+    }
+}
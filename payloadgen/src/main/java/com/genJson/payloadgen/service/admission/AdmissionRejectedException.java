@@ -0,0 +1,21 @@
+package com.genJson.payloadgen.service.admission;
+
+import java.time.Duration;
+
+/**
+ * Thrown when an entity is at its concurrency limit; maps to 429 with the
+ * suggested {@link #getRetryAfter() retry delay}.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,47 @@
+package com.genJson.payloadgen.service.cache;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * W-TinyLFU cache backed by Caffeine. Loads for the same id are coalesced and
+ * an invalidation waits for an in-flight load, so a write cannot be overtaken
+ * by a stale read.
+ */
+class CaffeineEntityCache implements EntityCache {
+
+    private final Cache<Object, Object> cache;
+
+    CaffeineEntityCache(long maxSize, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Object get(Object id, Function<Object, Object> loader) {
+        return cache.get(id, loader);
+    }
+
+    @Override
+    public void invalidate(Object id) {
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public CacheStats stats() {
+        var stats = cache.stats();
+        return new CacheStats("tiny_lfu", cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount());
+    }
+}
@@ -0,0 +1,24 @@
+package com.genJson.payloadgen.service.cache;
+
+import java.util.function.Function;
+
+/**
+ * Bounded id -> entity cache for a single entity type.
+ */
+public interface EntityCache {
+
+    /**
+     * Cached entity for {@code id}, loading it with {@code loader} on a miss.
+     * A {@code null} result from the loader is not cached.
+     */
+    Object get(Object id, Function<Object, Object> loader);
+
+    void invalidate(Object id);
+
+    void invalidateAll();
+
+    CacheStats stats();
+
+    record CacheStats(String policy, long size, long hits, long misses, long evictions) {
+    }
+}
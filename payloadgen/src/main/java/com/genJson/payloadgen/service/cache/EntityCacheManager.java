@@ -0,0 +1,111 @@
+package com.genJson.payloadgen.service.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.genJson.payloadgen.config.CacheProperties;
+import com.genJson.payloadgen.service.EntityRegistry;
+
+/**
+ * Holds the optional per-entity findById caches. Entities without a cache
+ * are always loaded from the repository.
+ */
+@Component
+public class EntityCacheManager {
+
+    private final Map<Class<?>, EntityCache> caches = new HashMap<>();
+    private final Map<String, Class<?>> names = new LinkedHashMap<>();
+
+    public EntityCacheManager(EntityRegistry registry, CacheProperties properties) {
+        for (String name : registry.getRegisteredEntities()) {
+            CacheProperties.EntitySettings settings = properties.getEntities().get(name);
+            boolean enabled = settings != null && settings.getEnabled() != null
+                    ? settings.getEnabled()
+                    : properties.isEnabled();
+            if (!enabled) {
+                continue;
+            }
+
+            long maxSize = settings != null && settings.getMaxSize() != null ? settings.getMaxSize()
+                    : properties.getMaxSize();
+            Duration ttl = settings != null && settings.getTtl() != null ? settings.getTtl() : properties.getTtl();
+            CacheProperties.Policy policy = settings != null && settings.getPolicy() != null ? settings.getPolicy()
+                    : properties.getPolicy();
+
+            Class<?> entityClass = registry.getEntityClass(name);
+            caches.put(entityClass, policy == CacheProperties.Policy.LRU
+                    ? new LruEntityCache(maxSize, ttl)
+                    : new CaffeineEntityCache(maxSize, ttl));
+            names.put(name, entityClass);
+        }
+    }
+
+    /**
+     * Read-through lookup; {@code loader} returns {@code null} when the row does not exist.
+     */
+    public Object findById(Class<?> entityClass, Object id, Function<Object, Object> loader) {
+        EntityCache cache = caches.get(entityClass);
+        return cache != null ? cache.get(id, loader) : loader.apply(id);
+    }
+
+    /**
+     * Drops the given ids; deferred until commit when called inside a transaction
+     * so a concurrent read cannot re-cache the pre-commit row. The eviction runs
+     * ahead of the after-commit event listeners (ETag versions, change feed), so
+     * nothing announces the change while the old row is still cached.
+     */
+    public void evict(Class<?> entityClass, Collection<?> ids) {
+        EntityCache cache = caches.get(entityClass);
+        if (cache == null || ids.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> ids.forEach(cache::invalidate));
+    }
+
+    public void evictAll(Class<?> entityClass) {
+        EntityCache cache = caches.get(entityClass);
+        if (cache != null) {
+            afterCommit(cache::invalidateAll);
+        }
+    }
+
+    public Map<String, EntityCache.CacheStats> stats() {
+        Map<String, EntityCache.CacheStats> stats = new LinkedHashMap<>();
+        names.forEach((name, entityClass) -> stats.put(name, caches.get(entityClass).stats()));
+        return stats;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
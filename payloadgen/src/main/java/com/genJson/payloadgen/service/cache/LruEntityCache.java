@@ -0,0 +1,85 @@
+package com.genJson.payloadgen.service.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Least-recently-used cache with a write TTL. A generation counter bumped on
+ * every invalidation keeps a load that raced with a write from being stored.
+ */
+class LruEntityCache implements EntityCache {
+
+    private final long maxSize;
+    private final long ttlNanos;
+    private final Map<Object, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long generation;
+
+    LruEntityCache(long maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (size() > LruEntityCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Object get(Object id, Function<Object, Object> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+                hits.increment();
+                return entry.value();
+            }
+            if (entry != null) {
+                entries.remove(id);
+                evictions.increment();
+            }
+            loadGeneration = generation;
+        }
+
+        misses.increment();
+        Object value = loader.apply(id);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(id, new Entry(value, System.nanoTime()));
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized void invalidate(Object id) {
+        generation++;
+        entries.remove(id);
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    @Override
+    public synchronized CacheStats stats() {
+        return new CacheStats("lru", entries.size(), hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private record Entry(Object value, long loadedAt) {
+    }
+}
@@ -0,0 +1,275 @@
+package com.genJson.payloadgen.service.change;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.genJson.payloadgen.config.ChangeFeedProperties;
+import com.genJson.payloadgen.service.EntityRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-sent change events per registered entity, fed by
+ * {@link EntityChangedEvent}s after their transaction commits.
+ * <p>
+ * Each entity keeps a ring of its last {@code historySize} events under ids
+ * {@code <epoch>-<sequence>}. A client that reconnects with Last-Event-ID gets
+ * the events it missed replayed. If the id is from an earlier process or has
+ * left the ring, the client gets a {@code reset} event instead and should
+ * reload with find_all.
+ * <p>
+ * Publishing never blocks the writer. Every subscriber has a bounded queue
+ * drained by its own virtual thread. A subscriber whose queue overflows is sent
+ * a {@code dropped} event and disconnected. Its last delivered id is the resume
+ * token, and EventSource resubmits it on reconnect.
+ */
+@Component
+public class ChangeFeed {
+
+    private static final Object HEARTBEAT = new Object();
+    private static final Object DROPPED = new Object();
+    private static final Object CLOSE = new Object();
+
+    private final ChangeFeedProperties properties;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36)
+            + Integer.toString(ThreadLocalRandom.current().nextInt(36 * 36 * 36), 36);
+    private final Map<Class<?>, Channel> channels = new HashMap<>();
+    private final Map<String, Channel> channelsByName = new HashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ScheduledExecutorService heartbeats;
+
+    public ChangeFeed(EntityRegistry registry, ChangeFeedProperties properties) {
+        this.properties = properties;
+        for (String name : registry.getRegisteredEntities()) {
+            Channel channel = new Channel(name, Math.max(1, properties.getHistorySize()));
+            channels.put(registry.getEntityClass(name), channel);
+            channelsByName.put(name, channel);
+        }
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("payloadgen-sse-heartbeat").factory());
+        long period = Math.max(1, properties.getHeartbeat().toMillis());
+        heartbeats.scheduleAtFixedRate(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of change events for {@code entityName}, replaying what the
+     * client missed after {@code lastEventId} when it is still buffered.
+     */
+    public SseEmitter subscribe(String entityName, String lastEventId) {
+        Channel channel = entityName != null ? channelsByName.get(entityName.toLowerCase()) : null;
+        if (channel == null) {
+            throw new IllegalArgumentException("Unknown or unregistered entity type");
+        }
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many change feed subscribers; retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(channel, emitter);
+        synchronized (channel) {
+            channel.resume(subscriber, lastEventId);
+            channel.subscribers.add(subscriber);
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        Thread.ofVirtual().name("payloadgen-sse-" + channel.name).start(subscriber::run);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChangedEvent event) {
+        Channel channel = channels.get(event.entityClass());
+        if (channel != null && !event.ids().isEmpty()) {
+            channel.append(event.type().name().toLowerCase(), event.ids());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        for (Channel channel : channels.values()) {
+            List<Subscriber> subscribers;
+            synchronized (channel) {
+                subscribers = new ArrayList<>(channel.subscribers);
+            }
+            subscribers.forEach(Subscriber::close);
+        }
+    }
+
+    private void heartbeat() {
+        for (Channel channel : channels.values()) {
+            synchronized (channel) {
+                // A full queue already means the subscriber is about to be dropped
+                channel.subscribers.forEach(subscriber -> subscriber.queue.offer(HEARTBEAT));
+            }
+        }
+    }
+
+    private String id(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private record Change(long sequence, String type, List<Object> ids) {
+    }
+
+    private final class Channel {
+        private final String name;
+        private final Change[] history;
+        private final Set<Subscriber> subscribers = new LinkedHashSet<>();
+        private long sequence;
+
+        Channel(String name, int historySize) {
+            this.name = name;
+            this.history = new Change[historySize];
+        }
+
+        synchronized void append(String type, List<Object> ids) {
+            Change change = new Change(++sequence, type, List.copyOf(ids));
+            history[(int) (change.sequence() % history.length)] = change;
+            for (Subscriber subscriber : List.copyOf(subscribers)) {
+                subscriber.offer(change);
+            }
+        }
+
+        // Called with the channel lock held, before the subscriber sees live events
+        void resume(Subscriber subscriber, String lastEventId) {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return;
+            }
+            long last = -1;
+            int separator = lastEventId.lastIndexOf('-');
+            if (separator > 0 && lastEventId.substring(0, separator).equals(epoch)) {
+                try {
+                    last = Long.parseLong(lastEventId.substring(separator + 1));
+                } catch (NumberFormatException e) {
+                    // treated like an unknown id
+                }
+            }
+            long oldest = Math.max(1, sequence - history.length + 1);
+            if (last < 0 || last > sequence || last + 1 < oldest) {
+                subscriber.reset = true;
+                return;
+            }
+            for (long next = last + 1; next <= sequence; next++) {
+                subscriber.backlog.add(history[(int) (next % history.length)]);
+            }
+        }
+    }
+
+    private final class Subscriber {
+        private final Channel channel;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(
+                Math.max(2, properties.getSubscriberBuffer()));
+        private final List<Change> backlog = new ArrayList<>();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private boolean reset;
+        private volatile String lastSentId;
+
+        Subscriber(Channel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+
+        // Under the channel lock; never blocks the writer
+        void offer(Change change) {
+            if (!queue.offer(change)) {
+                channel.subscribers.remove(this);
+                queue.clear();
+                queue.offer(DROPPED);
+            }
+        }
+
+        void run() {
+            try {
+                emitter.send(SseEmitter.event().comment("subscribed " + channel.name)
+                        .reconnectTime(properties.getReconnectDelay().toMillis()));
+                if (reset) {
+                    String current;
+                    synchronized (channel) {
+                        current = id(channel.sequence);
+                    }
+                    emitter.send(SseEmitter.event().id(current).name("reset")
+                            .data(Map.of("entity", channel.name, "reason",
+                                    "resume point is no longer buffered; reload and continue from here"),
+                                    MediaType.APPLICATION_JSON));
+                    lastSentId = current;
+                }
+                for (Change change : backlog) {
+                    send(change);
+                }
+                backlog.clear();
+
+                while (!closed.get()) {
+                    Object next = queue.take();
+                    if (next == CLOSE) {
+                        return;
+                    } else if (next == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else if (next == DROPPED) {
+                        Map<String, Object> data = new LinkedHashMap<>();
+                        data.put("entity", channel.name);
+                        data.put("reason", "subscriber too slow");
+                        data.put("resumeFrom", lastSentId);
+                        emitter.send(SseEmitter.event().name("dropped").data(data, MediaType.APPLICATION_JSON));
+                        emitter.complete();
+                        return;
+                    } else {
+                        send((Change) next);
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks finish the cleanup
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        private void send(Change change) throws IOException {
+            String id = id(change.sequence());
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("entity", channel.name);
+            data.put("type", change.type());
+            data.put("ids", change.ids());
+            emitter.send(SseEmitter.event().id(id).name("change").data(data, MediaType.APPLICATION_JSON));
+            lastSentId = id;
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriberCount.decrementAndGet();
+            synchronized (channel) {
+                channel.subscribers.remove(this);
+            }
+            queue.clear();
+            queue.offer(CLOSE);
+            emitter.complete();
+        }
+    }
+}
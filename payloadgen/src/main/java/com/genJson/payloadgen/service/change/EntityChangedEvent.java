@@ -0,0 +1,27 @@
+package com.genJson.payloadgen.service.change;
+
+import java.util.List;
+
+/**
+ * Published by every write path for the rows it created, updated or deleted.
+ * Inside a transaction, listeners registered with
+ * {@code @TransactionalEventListener} only see it once the transaction commits.
+ */
+public record EntityChangedEvent(Class<?> entityClass, ChangeType type, List<Object> ids) {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static EntityChangedEvent created(Class<?> entityClass, List<Object> ids) {
+        return new EntityChangedEvent(entityClass, ChangeType.CREATED, ids);
+    }
+
+    public static EntityChangedEvent updated(Class<?> entityClass, List<Object> ids) {
+        return new EntityChangedEvent(entityClass, ChangeType.UPDATED, ids);
+    }
+
+    public static EntityChangedEvent deleted(Class<?> entityClass, List<Object> ids) {
+        return new EntityChangedEvent(entityClass, ChangeType.DELETED, ids);
+    }
+}
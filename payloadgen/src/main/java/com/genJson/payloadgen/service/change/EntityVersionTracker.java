@@ -0,0 +1,145 @@
+package com.genJson.payloadgen.service.change;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.genJson.payloadgen.config.ETagProperties;
+import com.genJson.payloadgen.service.EntityRegistry;
+import com.genJson.payloadgen.service.metadata.FieldAccessor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+/**
+ * In-memory modification counters behind the ETags of read and find_all.
+ * <p>
+ * Each entity type has a counter bumped after every committed change; changed
+ * rows remember the counter value of their last change in a bounded map, and
+ * rows not (or no longer) in it report the type's floor, the highest value
+ * evicted so far. Tags also carry a per-process epoch, so a restart never
+ * revalidates a tag issued before it, and the versions of related entity types,
+ * so a row embedding another entity changes its tag when that type changes.
+ * <p>
+ * Callers take the tag <em>before</em> reading the database: a write
+ * committing in between can then only cause an extra miss, not a stale 304.
+ */
+@Component
+public class EntityVersionTracker {
+
+    private final boolean enabled;
+    private final long maxTrackedRows;
+    private final EntityRegistry registry;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36)
+            + Integer.toString(ThreadLocalRandom.current().nextInt(36 * 36 * 36), 36);
+    private final Map<Class<?>, TypeVersions> versions = new ConcurrentHashMap<>();
+    private final ClassValue<List<Class<?>>> relatedTypes = new ClassValue<>() {
+        @Override
+        protected List<Class<?>> computeValue(Class<?> type) {
+            return findRelatedTypes(type);
+        }
+    };
+
+    public EntityVersionTracker(ETagProperties properties, EntityRegistry registry) {
+        this.enabled = properties.isEnabled();
+        this.maxTrackedRows = Math.max(1, properties.getMaxTrackedRows());
+        this.registry = registry;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Weak ETag for a query over the whole type; {@code variant} distinguishes query shapes. */
+    public String entityTag(Class<?> entityClass, Object variant) {
+        return tag(entityClass, versions(entityClass).counter.get(), String.valueOf(variant));
+    }
+
+    /** Weak ETag for one row; {@code id} must already be converted to the id type. */
+    public String rowTag(Class<?> entityClass, Object id, Object variant) {
+        // Every row is read through the same URL, so the id must be part of the tag
+        return tag(entityClass, versions(entityClass).row(id), id + "|" + variant);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChangedEvent event) {
+        if (enabled) {
+            versions(event.entityClass()).bump(event.ids());
+        }
+    }
+
+    private String tag(Class<?> entityClass, long version, String variant) {
+        StringBuilder tag = new StringBuilder("W/\"").append(epoch).append('-').append(version);
+        for (Class<?> related : relatedTypes.get(entityClass)) {
+            tag.append('.').append(versions(related).counter.get());
+        }
+        String shape = entityClass.getName() + "|" + variant;
+        return tag.append('-').append(Long.toHexString(hash(shape))).append('"').toString();
+    }
+
+    private TypeVersions versions(Class<?> entityClass) {
+        return versions.computeIfAbsent(entityClass, type -> new TypeVersions(maxTrackedRows));
+    }
+
+    private List<Class<?>> findRelatedTypes(Class<?> entityClass) {
+        List<Class<?>> related = new ArrayList<>();
+        for (FieldAccessor field : registry.getMetadata(entityClass).getFields()) {
+            if (field.isSimple()) {
+                continue;
+            }
+            Class<?> type = field.isCollection() ? field.getElementType() : field.getType();
+            if (!related.contains(type) && registry.getRepositoryByEntity(type) != null) {
+                related.add(type);
+            }
+        }
+        return List.copyOf(related);
+    }
+
+    // FNV-1a; the variant is the request shape, so 64 bits keep collisions irrelevant
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static final class TypeVersions {
+        private final AtomicLong counter = new AtomicLong();
+        private final AtomicLong floor = new AtomicLong();
+        private final Cache<Object, Long> rows;
+
+        TypeVersions(long maxTrackedRows) {
+            // The eviction listener runs before the entry disappears, so a lookup never
+            // sees neither the row's version nor a floor covering it
+            this.rows = Caffeine.newBuilder()
+                    .maximumSize(maxTrackedRows)
+                    .executor(Runnable::run)
+                    .<Object, Long>evictionListener((id, version, cause) -> {
+                        if (cause == RemovalCause.SIZE && version != null) {
+                            floor.accumulateAndGet(version, Math::max);
+                        }
+                    })
+                    .build();
+        }
+
+        long row(Object id) {
+            Long version = rows.getIfPresent(id);
+            return version != null ? version : floor.get();
+        }
+
+        void bump(List<Object> ids) {
+            long version = counter.incrementAndGet();
+            for (Object id : ids) {
+                rows.put(id, version);
+            }
+        }
+    }
+}
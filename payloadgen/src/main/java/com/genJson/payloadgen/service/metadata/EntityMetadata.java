@@ -0,0 +1,160 @@
+package com.genJson.payloadgen.service.metadata;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+
+/**
+ * Immutable, precomputed view of an entity class used by the mapping, id
+ * conversion and merge paths. Built once per class (see
+ * {@code EntityRegistry#getMetadata}) so that no reflection happens per row.
+ */
+public final class EntityMetadata {
+
+    private final Class<?> entityClass;
+    private final MethodHandle constructor;
+    private final List<FieldAccessor> fields;
+    private final Map<String, FieldAccessor> fieldsByName;
+    private final Map<String, FieldAccessor> fieldsIgnoreCase;
+    private final FieldAccessor idField;
+    private final FieldAccessor versionField;
+    private final Function<Object, Object> idConverter;
+
+    private EntityMetadata(Class<?> entityClass, MethodHandle constructor, List<FieldAccessor> fields,
+            FieldAccessor idField, FieldAccessor versionField) {
+        this.entityClass = entityClass;
+        this.constructor = constructor;
+        this.fields = fields;
+        this.idField = idField;
+        this.versionField = versionField;
+        this.idConverter = idField != null ? TypeConverters.forIdType(idField.getType()) : null;
+
+        Map<String, FieldAccessor> byName = new HashMap<>();
+        Map<String, FieldAccessor> ignoreCase = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (FieldAccessor field : fields) {
+            byName.put(field.getName(), field);
+            ignoreCase.putIfAbsent(field.getName(), field);
+        }
+        this.fieldsByName = Collections.unmodifiableMap(byName);
+        this.fieldsIgnoreCase = Collections.unmodifiableMap(ignoreCase);
+    }
+
+    public static EntityMetadata of(Class<?> entityClass) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(entityClass, MethodHandles.lookup());
+
+            MethodHandle constructor = null;
+            try {
+                constructor = lookup.findConstructor(entityClass, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException e) {
+                // Not instantiable from a payload; mapping will fail with a clear message
+            }
+
+            List<FieldAccessor> fields = new ArrayList<>();
+            FieldAccessor idField = null;
+            FieldAccessor idByName = null;
+            FieldAccessor versionField = null;
+            for (Field field : entityClass.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                FieldAccessor accessor = new FieldAccessor(field, lookup);
+                fields.add(accessor);
+                if (idField == null && field.isAnnotationPresent(Id.class)) {
+                    idField = accessor;
+                }
+                if (idByName == null && field.getName().equalsIgnoreCase("id")) {
+                    idByName = accessor;
+                }
+                if (versionField == null && field.isAnnotationPresent(Version.class)) {
+                    versionField = accessor;
+                }
+            }
+
+            return new EntityMetadata(entityClass, constructor, List.copyOf(fields),
+                    idField != null ? idField : idByName, versionField);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot build metadata for " + entityClass.getName(), e);
+        }
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public List<FieldAccessor> getFields() {
+        return fields;
+    }
+
+    /** Field lookup by payload key: exact name first, then case-insensitive. */
+    public FieldAccessor field(String name) {
+        FieldAccessor field = fieldsByName.get(name);
+        return field != null ? field : fieldsIgnoreCase.get(name);
+    }
+
+    public boolean hasIdField() {
+        return idField != null;
+    }
+
+    public FieldAccessor getIdField() {
+        if (idField == null) {
+            throw new IllegalArgumentException("No 'id' field found in " + entityClass.getSimpleName());
+        }
+        return idField;
+    }
+
+    /** The {@code @Version} field used for optimistic locking, or {@code null}. */
+    public FieldAccessor getVersionField() {
+        return versionField;
+    }
+
+    public Class<?> getIdType() {
+        return getIdField().getType();
+    }
+
+    public Object getId(Object entity) {
+        return getIdField().get(entity);
+    }
+
+    /** Converts a raw id (e.g. from JSON) to the entity's declared id type. */
+    public Object convertId(Object id) {
+        getIdField();
+        return idConverter.apply(id);
+    }
+
+    public Object newInstance() {
+        if (constructor == null) {
+            throw new IllegalArgumentException("No default constructor found in " + entityClass.getSimpleName());
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Cannot instantiate " + entityClass.getSimpleName(), t);
+        }
+    }
+
+    /** Merge only non-null fields of {@code src} into {@code target}. */
+    public void copyNonNullProperties(Object src, Object target) {
+        for (FieldAccessor field : fields) {
+            Object value = field.get(src);
+            if (value != null) {
+                field.set(target, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.genJson.payloadgen.service.metadata;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Precompiled access to a single entity field: getter/setter method handles,
+ * the declared type and the converter for incoming payload values.
+ */
+public final class FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final String name;
+    private final Class<?> type;
+    private final Class<?> elementType;
+    private final boolean simple;
+    private final boolean collection;
+    private final Function<Object, Object> converter;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    FieldAccessor(Field field, MethodHandles.Lookup lookup) throws IllegalAccessException {
+        this.name = field.getName();
+        this.type = field.getType();
+        this.simple = TypeConverters.isSimpleType(type);
+        this.collection = Collection.class.isAssignableFrom(type);
+        this.elementType = collection ? resolveElementType(field) : null;
+        this.converter = simple ? TypeConverters.forType(type) : Function.identity();
+        this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+        this.setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Element type of a collection field, or {@code Object.class} when it cannot
+     * be resolved. {@code null} for non-collection fields.
+     */
+    public Class<?> getElementType() {
+        return elementType;
+    }
+
+    public boolean isSimple() {
+        return simple;
+    }
+
+    public boolean isCollection() {
+        return collection;
+    }
+
+    /** Converts a raw payload value to this field's type (identity for non-simple fields). */
+    public Object convert(Object value) {
+        return converter.apply(value);
+    }
+
+    public Object get(Object entity) {
+        try {
+            return (Object) getter.invokeExact(entity);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Cannot read field '" + name + "': " + t.getMessage(), t);
+        }
+    }
+
+    public void set(Object entity, Object value) {
+        try {
+            setter.invokeExact(entity, value);
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException("Field '" + name + "' of type " + type.getSimpleName()
+                    + " cannot be null", e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Cannot write field '" + name + "': " + t.getMessage(), t);
+        }
+    }
+
+    private static Class<?> resolveElementType(Field field) {
+        Type generic = field.getGenericType();
+        if (generic instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> element) {
+            return element;
+        }
+        return Object.class;
+    }
+}
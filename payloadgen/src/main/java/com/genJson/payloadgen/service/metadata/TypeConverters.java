@@ -0,0 +1,145 @@
+package com.genJson.payloadgen.service.metadata;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+
+/**
+ * Builds the value converters used when mapping payload values onto entity fields.
+ * Converters are resolved once per field type, so the per-value work is only the
+ * conversion itself.
+ */
+public final class TypeConverters {
+
+    private TypeConverters() {
+    }
+
+    public static boolean isSimpleType(Class<?> type) {
+        return type.isPrimitive()
+                || type.equals(String.class)
+                || Number.class.isAssignableFrom(type)
+                || type.equals(Boolean.class)
+                || type.equals(LocalDate.class)
+                || type.equals(LocalDateTime.class);
+    }
+
+    /**
+     * Converter for a field of the given type. Values that are already of the
+     * target type are returned as is, everything else is parsed from its string form.
+     */
+    public static Function<Object, Object> forType(Class<?> targetType) {
+        Class<?> boxed = box(targetType);
+        Function<String, Object> parser = parserFor(boxed);
+        if (parser == null) {
+            return value -> value;
+        }
+
+        return value -> {
+            if (value == null || boxed.isInstance(value)) {
+                return value;
+            }
+            Object fast = fromIntegral(value, boxed);
+            if (fast != null) {
+                return fast;
+            }
+            try {
+                return parser.apply(value.toString());
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException(
+                        "Cannot convert value '" + value + "' to type " + targetType.getSimpleName(), e);
+            }
+        };
+    }
+
+    /**
+     * Converter for an id field. Only Long, Integer and String ids are supported;
+     * any other id type fails when an id is converted.
+     */
+    public static Function<Object, Object> forIdType(Class<?> idType) {
+        Class<?> boxed = box(idType);
+        if (boxed != Long.class && boxed != Integer.class && boxed != String.class) {
+            return id -> {
+                throw new IllegalArgumentException("Unsupported ID type: " + idType.getSimpleName());
+            };
+        }
+
+        Function<Object, Object> converter = forType(boxed);
+        return id -> {
+            try {
+                return converter.apply(id);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid ID value '" + id + "' for type " + idType.getSimpleName(), e);
+            }
+        };
+    }
+
+    private static Function<String, Object> parserFor(Class<?> type) {
+        if (type == Long.class) {
+            return Long::valueOf;
+        } else if (type == Integer.class) {
+            return Integer::valueOf;
+        } else if (type == Double.class) {
+            return Double::valueOf;
+        } else if (type == Float.class) {
+            return Float::valueOf;
+        } else if (type == Boolean.class) {
+            return Boolean::valueOf;
+        } else if (type == Short.class) {
+            return Short::valueOf;
+        } else if (type == Byte.class) {
+            return Byte::valueOf;
+        } else if (type == String.class) {
+            return s -> s;
+        } else if (type == LocalDate.class) {
+            return LocalDate::parse;
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime::parse;
+        }
+        return null;
+    }
+
+    // Integral JSON numbers are the common case; convert them without a string round trip.
+    // Returns null when the value has to go through the string parser instead.
+    private static Object fromIntegral(Object value, Class<?> type) {
+        if (!(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)) {
+            return null;
+        }
+        long n = ((Number) value).longValue();
+        if (type == Long.class) {
+            return n;
+        } else if (type == Integer.class && n >= Integer.MIN_VALUE && n <= Integer.MAX_VALUE) {
+            return (int) n;
+        } else if (type == Short.class && n >= Short.MIN_VALUE && n <= Short.MAX_VALUE) {
+            return (short) n;
+        } else if (type == Byte.class && n >= Byte.MIN_VALUE && n <= Byte.MAX_VALUE) {
+            return (byte) n;
+        } else if (type == Double.class) {
+            return (double) n;
+        }
+        return null;
+    }
+
+    static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == int.class) {
+            return Integer.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == char.class) {
+            return Character.class;
+        }
+        return type;
+    }
+}
@@ -0,0 +1,122 @@
+package com.genJson.payloadgen.service.metrics;
+
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Per-entity, per-operation meters for the CRUD service:
+ * <ul>
+ * <li>{@code payloadgen.crud.requests} - latency (p50/p99 plus histogram buckets),
+ * tagged with entity, operation, resolution (named/guessed) and outcome</li>
+ * <li>{@code payloadgen.crud.rows} - rows received ({@code direction=in}) and
+ * returned ({@code direction=out}) per request</li>
+ * <li>{@code payloadgen.crud.batch.size} - rows per list payload</li>
+ * <li>{@code payloadgen.crud.statements} - JDBC statements per request</li>
+ * </ul>
+ * Entity tags only ever hold registered entity names, so cardinality is bounded.
+ */
+@Component
+public class CrudMetrics {
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry registry;
+
+    public CrudMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times {@code call} and records whatever it reported on the observation,
+     * including when it throws.
+     */
+    public <T> T observe(String operation, Function<Observation, T> call) {
+        Observation observation = new Observation();
+        long statementsBefore = StatementCountingDataSource.currentCount();
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        String exception = "none";
+        try {
+            return call.apply(observation);
+        } catch (RuntimeException e) {
+            outcome = e instanceof IllegalArgumentException ? "client_error" : "error";
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Tags tags = Tags.of("entity", observation.entity, "operation", operation);
+            sample.stop(Timer.builder("payloadgen.crud.requests")
+                    .description("CRUD service calls")
+                    .tags(tags)
+                    .tag("resolution", observation.resolution)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .publishPercentiles(0.5, 0.99)
+                    .publishPercentileHistogram()
+                    .register(registry));
+
+            summary("payloadgen.crud.statements", "JDBC statements per call", "statements", tags)
+                    .record(StatementCountingDataSource.currentCount() - statementsBefore);
+            if (observation.rowsIn >= 0) {
+                summary("payloadgen.crud.rows", "Rows per call", "rows", tags.and("direction", "in"))
+                        .record(observation.rowsIn);
+            }
+            if (observation.rowsOut >= 0) {
+                summary("payloadgen.crud.rows", "Rows per call", "rows", tags.and("direction", "out"))
+                        .record(observation.rowsOut);
+            }
+            if (observation.batchSize >= 0) {
+                summary("payloadgen.crud.batch.size", "Rows per list payload", "rows", tags)
+                        .record(observation.batchSize);
+            }
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String unit, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(unit)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    /**
+     * What a single service call reports about itself; unset values are not recorded.
+     */
+    public static final class Observation {
+        private String entity = UNKNOWN;
+        private String resolution = UNKNOWN;
+        private long rowsIn = -1;
+        private long rowsOut = -1;
+        private long batchSize = -1;
+
+        public Observation entity(Class<?> entityClass, boolean guessed) {
+            if (entityClass != null) {
+                this.entity = entityClass.getSimpleName().toLowerCase();
+                this.resolution = guessed ? "guessed" : "named";
+            }
+            return this;
+        }
+
+        public Observation rowsIn(long rows) {
+            this.rowsIn = rows;
+            return this;
+        }
+
+        public Observation rowsOut(long rows) {
+            this.rowsOut = rows;
+            return this;
+        }
+
+        public Observation batchSize(long rows) {
+            this.batchSize = rows;
+            return this;
+        }
+    }
+}
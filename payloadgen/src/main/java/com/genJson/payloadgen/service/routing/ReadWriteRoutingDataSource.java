@@ -0,0 +1,30 @@
+package com.genJson.payloadgen.service.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Picks the primary or the replica pool per connection from the target bound by
+ * {@link ReplicaRouting}. Meant to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so
+ * the lookup happens at the first statement, once the transaction's read-only
+ * flag is known, rather than when the transaction begins.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaRouting routing;
+
+    public ReadWriteRoutingDataSource(ReplicaRouting routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // A read-write transaction always writes to the primary, whatever the caller bound
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return ReplicaRouting.Target.PRIMARY;
+        }
+        return routing.current();
+    }
+}
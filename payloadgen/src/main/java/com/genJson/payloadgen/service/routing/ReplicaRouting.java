@@ -0,0 +1,152 @@
+package com.genJson.payloadgen.service.routing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.genJson.payloadgen.config.RoutingProperties;
+import com.genJson.payloadgen.service.change.EntityChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Decides which database a read runs on. Read operations bind a {@link Target}
+ * to their thread for their duration; the routing DataSource consults it when
+ * the first statement needs a connection. Commits are tracked to flag entity
+ * types whose replica copy may still be behind. Writers pin their caller to the
+ * primary for a short window once the write returns: on the request thread, or
+ * with a caller captured there when the work finishes on another thread.
+ */
+@Component
+public class ReplicaRouting {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    /** Restores the previous binding; use with try-with-resources. */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final ThreadLocal<Target> current = new ThreadLocal<>();
+    private final RoutingProperties properties;
+    private final Cache<String, Boolean> pinnedCallers;
+    private final Map<Class<?>, Long> lastChange = new ConcurrentHashMap<>();
+
+    public ReplicaRouting(RoutingProperties properties) {
+        this.properties = properties;
+        this.pinnedCallers = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getPinWindow())
+                .maximumSize(properties.getMaxPinnedCallers())
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Where a read issued now by the current caller should go: the replica,
+     * unless routing is off or the caller wrote within the pin window.
+     */
+    public Target readTarget() {
+        if (!properties.isEnabled()) {
+            return Target.PRIMARY;
+        }
+        if (properties.isReadYourWrites()) {
+            String caller = caller();
+            if (caller != null && pinnedCallers.getIfPresent(caller) != null) {
+                return Target.PRIMARY;
+            }
+        }
+        return Target.REPLICA;
+    }
+
+    /**
+     * Binds {@code target} to the current thread, e.g. a decision taken on the
+     * request thread for work that continues on another one.
+     */
+    public Scope use(Target target) {
+        Target previous = current.get();
+        current.set(target);
+        return () -> {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        };
+    }
+
+    /** Binds {@link #readTarget()} to the current thread. */
+    public Scope read() {
+        return use(readTarget());
+    }
+
+    /** The bound target; unbound work (all writes) goes to the primary. */
+    public Target current() {
+        Target target = current.get();
+        return target != null ? target : Target.PRIMARY;
+    }
+
+    /**
+     * True when a read of {@code entityClass} by the current caller is served by
+     * the replica and the type changed recently enough that the replica may not
+     * have the change yet.
+     */
+    public boolean mayBeStale(Class<?> entityClass) {
+        Target target = current.get() != null ? current.get() : readTarget();
+        if (target != Target.REPLICA) {
+            return false;
+        }
+        Long changed = lastChange.get(entityClass);
+        return changed != null && System.nanoTime() - changed < properties.getReplicaLag().toNanos();
+    }
+
+    // Any thread may commit (coalescer, parallel pool, jobs), so no caller is derived here
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChangedEvent event) {
+        if (properties.isEnabled()) {
+            lastChange.put(event.entityClass(), System.nanoTime());
+        }
+    }
+
+    /**
+     * The caller of the current request, or null off the request thread. Capture
+     * it before handing writes to another thread and {@link #pin(String) pin} it
+     * when they are done.
+     */
+    public String currentCaller() {
+        return properties.isEnabled() && properties.isReadYourWrites() ? caller() : null;
+    }
+
+    /** Sends {@code caller}'s reads to the primary for the pin window; null is ignored. */
+    public void pin(String caller) {
+        if (caller != null) {
+            pinnedCallers.put(caller, Boolean.TRUE);
+        }
+    }
+
+    /** Pins the current request's caller after a write it made (or waited for). */
+    public void pinCurrentCaller() {
+        pin(currentCaller());
+    }
+
+    private String caller() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String caller = request.getHeader(properties.getCallerHeader());
+        return caller != null && !caller.isBlank() ? caller : request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,259 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genJson.payloadgen.config.BulkProperties;
+import com.genJson.payloadgen.service.cache.EntityCacheManager;
+import com.genJson.payloadgen.service.change.EntityChangedEvent;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * List writes with explicit transaction semantics, selected per request with
+ * {@code "transaction"}:
+ * <ul>
+ * <li>{@code all_or_nothing} - one transaction; any failure writes nothing</li>
+ * <li>{@code chunked} - a transaction per {@code commitEvery} rows; a failing
+ * chunk is rolled back on its own, committed chunks stay</li>
+ * <li>{@code best_effort} - one transaction with a savepoint per row; failed
+ * rows are rolled back to their savepoint and skipped</li>
+ * </ul>
+ * Rows that cannot be mapped are reported before anything is written. The
+ * response lists failures by input index.
+ */
+@Component
+public class BatchTransactionWriter {
+
+    private final EntityMapper entityMapper;
+    private final BulkEntityWriter bulkWriter;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final BulkProperties properties;
+    private final EntityCacheManager cacheManager;
+    private final ApplicationEventPublisher events;
+
+    public BatchTransactionWriter(EntityMapper entityMapper, BulkEntityWriter bulkWriter,
+            EntityManager entityManager, PlatformTransactionManager transactionManager, BulkProperties properties,
+            EntityCacheManager cacheManager, ApplicationEventPublisher events) {
+        this.entityMapper = entityMapper;
+        this.bulkWriter = bulkWriter;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.cacheManager = cacheManager;
+        this.events = events;
+    }
+
+    public enum Strategy {
+        ALL_OR_NOTHING, CHUNKED, BEST_EFFORT;
+
+        public static Strategy from(Object value) {
+            try {
+                return valueOf(value.toString().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid transaction strategy '" + value
+                        + "'. Expected all_or_nothing, chunked or best_effort");
+            }
+        }
+    }
+
+    public Map<String, Object> saveAll(EntityMetadata meta, JpaRepository<Object, Object> repo,
+            List<Map<String, Object>> rows, Strategy strategy, Integer commitEvery) {
+        BatchOutcome outcome = new BatchOutcome(rows.size(), properties.getMaxReportedFailures());
+
+        // Map everything first so payload errors are reported per row without touching the database
+        RelationBatch relations = entityMapper.newRelationBatch();
+        Object[] entities = new Object[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                relations.owner(i);
+                entities[i] = entityMapper.mapToEntity(rows.get(i), meta, relations);
+            } catch (RuntimeException e) {
+                outcome.fail(i, e);
+            }
+        }
+        try {
+            // An unknown related id only fails the rows that referenced it
+            entityMapper.resolveRelationsEach(relations).forEach((index, e) -> {
+                int i = (Integer) index;
+                if (entities[i] != null) {
+                    outcome.fail(i, e);
+                    entities[i] = null;
+                }
+            });
+        } catch (RuntimeException e) {
+            for (int i = 0; i < entities.length; i++) {
+                if (entities[i] != null) {
+                    outcome.fail(i, e);
+                    entities[i] = null;
+                }
+            }
+        }
+
+        switch (strategy) {
+            case ALL_OR_NOTHING -> {
+                if (outcome.failed == 0) {
+                    writeChunk(meta, repo, entities, 0, entities.length, outcome);
+                }
+            }
+            case CHUNKED -> {
+                int size = commitEvery != null && commitEvery > 0 ? commitEvery : properties.getBatchSize();
+                for (int from = 0; from < entities.length; from += size) {
+                    writeChunk(meta, repo, entities, from, Math.min(from + size, entities.length), outcome);
+                    // Committed rows need not stay in a surrounding persistence context
+                    entityManager.clear();
+                }
+            }
+            case BEST_EFFORT -> writeWithSavepoints(meta, entities, outcome);
+        }
+        return outcome.toResponse(meta, strategy);
+    }
+
+    private void writeChunk(EntityMetadata meta, JpaRepository<Object, Object> repo, Object[] entities, int from,
+            int to, BatchOutcome outcome) {
+        List<Object> chunk = new ArrayList<>(to - from);
+        List<Integer> indexes = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            if (entities[i] != null) {
+                chunk.add(entities[i]);
+                indexes.add(i);
+            }
+        }
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<Object> saved = bulkWriter.saveAll(meta, repo, chunk).entities();
+            for (int i = 0; i < saved.size(); i++) {
+                outcome.saved(indexes.get(i), saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            for (int index : indexes) {
+                outcome.fail(index, e);
+            }
+        }
+    }
+
+    private void writeWithSavepoints(EntityMetadata meta, Object[] entities, BatchOutcome outcome) {
+        List<Object> created = new ArrayList<>();
+        List<Object> updated = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            // A failed flush marks the JPA transaction rollback-only, which no savepoint can undo.
+            // Rows are therefore written through a stateless session on the transaction's own
+            // connection, each statement wrapped in a JDBC savepoint.
+            Session session = entityManager.unwrap(Session.class);
+            entityManager.flush();
+            Connection connection = session.doReturningWork(jdbc -> jdbc);
+            try (StatelessSession rows = session.getSessionFactory().withStatelessOptions()
+                    .connection(connection).openStatelessSession()) {
+                for (int i = 0; i < entities.length; i++) {
+                    if (entities[i] != null) {
+                        writeRow(meta, rows, connection, i, entities[i], outcome, created, updated);
+                    }
+                }
+            }
+        });
+        cacheManager.evict(meta.getEntityClass(), updated);
+        if (!created.isEmpty()) {
+            events.publishEvent(EntityChangedEvent.created(meta.getEntityClass(), created));
+        }
+        if (!updated.isEmpty()) {
+            events.publishEvent(EntityChangedEvent.updated(meta.getEntityClass(), updated));
+        }
+    }
+
+    private void writeRow(EntityMetadata meta, StatelessSession rows, Connection connection, int index, Object entity,
+            BatchOutcome outcome, List<Object> created, List<Object> updated) {
+        Savepoint savepoint;
+        try {
+            savepoint = connection.setSavepoint();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to create savepoint", e);
+        }
+        try {
+            Object id = meta.getId(entity);
+            Object current = id != null ? rows.get(meta.getEntityClass(), id) : null;
+            if (current != null) {
+                meta.copyNonNullProperties(entity, current);
+                rows.update(current);
+                entity = current;
+            } else {
+                if (id != null) {
+                    // Unknown ids become new rows, as with repo.save
+                    meta.getIdField().set(entity, null);
+                }
+                rows.insert(entity);
+            }
+            connection.releaseSavepoint(savepoint);
+            (current == null ? created : updated).add(meta.getId(entity));
+            outcome.saved(index, entity);
+        } catch (RuntimeException | SQLException e) {
+            try {
+                connection.rollback(savepoint);
+            } catch (SQLException rollbackFailure) {
+                e.addSuppressed(rollbackFailure);
+                throw new RuntimeException("Failed to roll back to savepoint", e);
+            }
+            outcome.fail(index, e);
+        }
+    }
+
+    private static final class BatchOutcome {
+        private final Object[] saved;
+        private final int maxReportedFailures;
+        private final List<Map<String, Object>> failures = new ArrayList<>();
+        private long savedCount;
+        private long failed;
+
+        BatchOutcome(int size, int maxReportedFailures) {
+            this.saved = new Object[size];
+            this.maxReportedFailures = maxReportedFailures;
+        }
+
+        void saved(int index, Object entity) {
+            saved[index] = entity;
+            savedCount++;
+        }
+
+        void fail(int index, Exception e) {
+            failed++;
+            if (failures.size() < maxReportedFailures) {
+                Map<String, Object> failure = new LinkedHashMap<>();
+                failure.put("index", index);
+                failure.put("error", e.getMessage());
+                failures.add(failure);
+            }
+        }
+
+        Map<String, Object> toResponse(EntityMetadata meta, Strategy strategy) {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("status", failed == 0 ? "success" : savedCount == 0 ? "failed" : "partial");
+            response.put("transaction", strategy.name().toLowerCase());
+            response.put("entity", meta.getEntityClass().getSimpleName());
+            response.put("received", saved.length);
+            response.put("saved", savedCount);
+            response.put("failed", failed);
+            response.put("failures", failures);
+            response.put("failuresTruncated", failed > failures.size());
+            // Aligned with the input: null where a row was not written
+            response.put("data", Arrays.asList(saved));
+            return response;
+        }
+    }
+}
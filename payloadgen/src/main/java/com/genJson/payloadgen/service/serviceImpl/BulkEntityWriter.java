@@ -0,0 +1,345 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.generator.Generator;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.persister.entity.SingleTableEntityPersister;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.Type;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genJson.payloadgen.config.BulkProperties;
+import com.genJson.payloadgen.service.cache.EntityCacheManager;
+import com.genJson.payloadgen.service.change.EntityChangedEvent;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+import com.genJson.payloadgen.service.metadata.FieldAccessor;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Bulk create-or-update for list payloads.
+ * <p>
+ * Existing rows are loaded with chunked {@code findAllById} calls and merged in
+ * memory; the resulting updates are flushed by Hibernate as JDBC batches. New
+ * rows of simple IDENTITY-keyed tables on PostgreSQL get their ids from one
+ * {@code nextval} query and are written with batched inserts (collapsed into
+ * multi-row inserts by {@code reWriteBatchedInserts}). Everything else falls
+ * back to {@code repo.save} inside the same transaction.
+ */
+@Component
+public class BulkEntityWriter {
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static final Comparator<Object> ID_ORDER = (a, b) -> ((Comparable) a).compareTo(b);
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BulkProperties properties;
+    private final EntityCacheManager cacheManager;
+    private final ApplicationEventPublisher events;
+    private final Map<Class<?>, Optional<InsertPlan>> insertPlans = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Optional<DeletePlan>> deletePlans = new ConcurrentHashMap<>();
+
+    public BulkEntityWriter(EntityManager entityManager, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, BulkProperties properties,
+            EntityCacheManager cacheManager, ApplicationEventPublisher events) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.cacheManager = cacheManager;
+        this.events = events;
+    }
+
+    /**
+     * Upsert the given (mapped, not yet persisted) entities in one transaction.
+     * Returns the saved entities in input order.
+     */
+    public BulkWriteResult saveAll(EntityMetadata meta, JpaRepository<Object, Object> repo, List<Object> entities) {
+        return transactionTemplate.execute(status -> upsert(meta, repo, entities));
+    }
+
+    /**
+     * Same as {@link #saveAll} but joins the caller's transaction.
+     */
+    BulkWriteResult upsert(EntityMetadata meta, JpaRepository<Object, Object> repo, List<Object> entities) {
+        Map<Object, Object> existing = loadExisting(meta, repo, entities);
+
+        List<Object> results = new ArrayList<>(entities.size());
+        List<Integer> insertIndexes = new ArrayList<>();
+        for (Object entity : entities) {
+            Object id = meta.getId(entity);
+            Object current = id != null ? existing.get(id) : null;
+            if (current != null) {
+                // Managed instance: dirty checking turns this into a batched UPDATE on flush
+                meta.copyNonNullProperties(entity, current);
+                results.add(current);
+            } else {
+                insertIndexes.add(results.size());
+                results.add(entity);
+            }
+        }
+
+        if (!insertIndexes.isEmpty()) {
+            insert(meta, repo, results, insertIndexes);
+        }
+        entityManager.flush();
+        cacheManager.evict(meta.getEntityClass(), existing.keySet());
+        publishChanges(meta, results, insertIndexes);
+        return new BulkWriteResult(results, insertIndexes.size(), results.size() - insertIndexes.size());
+    }
+
+    private void publishChanges(EntityMetadata meta, List<Object> results, List<Integer> insertIndexes) {
+        List<Object> created = new ArrayList<>(insertIndexes.size());
+        List<Object> updated = new ArrayList<>(results.size() - insertIndexes.size());
+        int next = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (next < insertIndexes.size() && insertIndexes.get(next) == i) {
+                created.add(meta.getId(results.get(i)));
+                next++;
+            } else {
+                updated.add(meta.getId(results.get(i)));
+            }
+        }
+        if (!created.isEmpty()) {
+            events.publishEvent(EntityChangedEvent.created(meta.getEntityClass(), created));
+        }
+        if (!updated.isEmpty()) {
+            events.publishEvent(EntityChangedEvent.updated(meta.getEntityClass(), updated));
+        }
+    }
+
+    private Map<Object, Object> loadExisting(EntityMetadata meta, JpaRepository<Object, Object> repo,
+            List<Object> entities) {
+        Set<Object> ids = new LinkedHashSet<>();
+        for (Object entity : entities) {
+            Object id = meta.getId(entity);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Object, Object> existing = new HashMap<>(ids.size() * 2);
+        List<Object> idList = new ArrayList<>(ids);
+        int chunkSize = Math.max(1, properties.getLookupChunkSize());
+        for (int from = 0; from < idList.size(); from += chunkSize) {
+            List<Object> chunk = idList.subList(from, Math.min(from + chunkSize, idList.size()));
+            for (Object found : repo.findAllById(chunk)) {
+                existing.put(meta.getId(found), found);
+            }
+        }
+        return existing;
+    }
+
+    private void insert(EntityMetadata meta, JpaRepository<Object, Object> repo, List<Object> results,
+            List<Integer> insertIndexes) {
+        InsertPlan plan = insertPlans.computeIfAbsent(meta.getEntityClass(), type -> buildInsertPlan(meta))
+                .orElse(null);
+
+        if (plan == null) {
+            for (int index : insertIndexes) {
+                results.set(index, repo.save(results.get(index)));
+            }
+            return;
+        }
+
+        List<Object> rows = new ArrayList<>(insertIndexes.size());
+        for (int index : insertIndexes) {
+            rows.add(results.get(index));
+        }
+
+        // Pre-allocate ids from the identity sequence in a single round trip
+        List<Long> ids = jdbcTemplate.queryForList(plan.sequenceSql(), Long.class, rows.size());
+        FieldAccessor idField = meta.getIdField();
+        for (int i = 0; i < rows.size(); i++) {
+            idField.set(rows.get(i), meta.convertId(ids.get(i)));
+        }
+
+        FieldAccessor[] columns = plan.columns();
+        jdbcTemplate.batchUpdate(plan.insertSql(), rows, Math.max(1, properties.getBatchSize()), (ps, row) -> {
+            StatementCreatorUtils.setParameterValue(ps, 1, SqlTypeValue.TYPE_UNKNOWN, idField.get(row));
+            for (int c = 0; c < columns.length; c++) {
+                StatementCreatorUtils.setParameterValue(ps, c + 2, SqlTypeValue.TYPE_UNKNOWN, columns[c].get(row));
+            }
+        });
+    }
+
+    /**
+     * Delete the given (already converted) ids in one transaction. Ids are
+     * de-duplicated and processed in sorted order, so the outcome and the lock
+     * order do not depend on how the caller listed them.
+     */
+    public BulkDeleteResult deleteAll(EntityMetadata meta, JpaRepository<Object, Object> repo, Collection<?> ids) {
+        List<Object> sorted = new ArrayList<>(new LinkedHashSet<>(ids));
+        sorted.sort(ID_ORDER);
+
+        List<Object> deleted = transactionTemplate.execute(status -> {
+            DeletePlan plan = deletePlans.computeIfAbsent(meta.getEntityClass(), type -> buildDeletePlan(meta))
+                    .orElse(null);
+            List<Object> removed = new ArrayList<>(sorted.size());
+            int chunkSize = Math.max(1, properties.getLookupChunkSize());
+            for (int from = 0; from < sorted.size(); from += chunkSize) {
+                List<Object> chunk = sorted.subList(from, Math.min(from + chunkSize, sorted.size()));
+                if (plan != null) {
+                    removed.addAll(deleteChunk(meta, plan, chunk));
+                } else {
+                    // Entity removal keeps cascades and orphan removal intact; Hibernate batches the deletes
+                    for (Object found : repo.findAllById(chunk)) {
+                        removed.add(meta.getId(found));
+                        repo.delete(found);
+                    }
+                }
+            }
+            entityManager.flush();
+            return removed;
+        });
+
+        deleted.sort(ID_ORDER);
+        List<Object> missing = new ArrayList<>(sorted);
+        missing.removeAll(new HashSet<>(deleted));
+        cacheManager.evict(meta.getEntityClass(), deleted);
+        if (!deleted.isEmpty()) {
+            events.publishEvent(EntityChangedEvent.deleted(meta.getEntityClass(), List.copyOf(deleted)));
+        }
+        return new BulkDeleteResult(deleted, missing);
+    }
+
+    private List<Object> deleteChunk(EntityMetadata meta, DeletePlan plan, List<Object> ids) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(plan.deleteSql());
+            Array array = connection.createArrayOf(plan.arrayType(), ids.toArray());
+            ps.setArray(1, array);
+            return ps;
+        }, (rs, rowNum) -> meta.convertId(rs.getObject(1)));
+    }
+
+    // Set-based deletes bypass the persistence context, so they are only used for
+    // single-table entities without associations (nothing to cascade); a foreign
+    // key pointing at a deleted row still fails the whole transaction.
+    private Optional<DeletePlan> buildDeletePlan(EntityMetadata meta) {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class);
+        if (!(sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQLDialect)) {
+            return Optional.empty();
+        }
+
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(meta.getEntityClass());
+        if (!(persister instanceof SingleTableEntityPersister singleTable)
+                || persister.isInherited()
+                || persister.hasSubclasses()
+                || singleTable.getIdentifierColumnNames().length != 1) {
+            return Optional.empty();
+        }
+        for (Type type : persister.getPropertyTypes()) {
+            if (type.isAssociationType() || type.isCollectionType() || type.isComponentType()) {
+                return Optional.empty();
+            }
+        }
+
+        Class<?> idType = meta.getIdType();
+        String arrayType = idType == Long.class || idType == long.class ? "bigint"
+                : idType == Integer.class || idType == int.class ? "integer"
+                : idType == String.class ? "text" : null;
+        if (arrayType == null) {
+            return Optional.empty();
+        }
+
+        String idColumn = singleTable.getIdentifierColumnNames()[0];
+        return Optional.of(new DeletePlan("delete from " + singleTable.getTableName() + " where " + idColumn
+                + " = any(?) returning " + idColumn, arrayType));
+    }
+
+    // Only single-table entities with an IDENTITY id and plain basic columns can
+    // be written directly; anything with associations, embeddables or versioning
+    // goes through Hibernate.
+    private Optional<InsertPlan> buildInsertPlan(EntityMetadata meta) {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class);
+        if (!(sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQLDialect)) {
+            return Optional.empty();
+        }
+
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(meta.getEntityClass());
+        Generator generator = persister.getGenerator();
+        if (!(persister instanceof SingleTableEntityPersister singleTable)
+                || !(generator instanceof IdentityGenerator)
+                || persister.isInherited()
+                || persister.hasSubclasses()
+                || persister.isVersioned()
+                || singleTable.getIdentifierColumnNames().length != 1) {
+            return Optional.empty();
+        }
+
+        String[] propertyNames = persister.getPropertyNames();
+        Type[] propertyTypes = persister.getPropertyTypes();
+        boolean[] insertable = persister.getPropertyInsertability();
+
+        List<FieldAccessor> columns = new ArrayList<>();
+        List<String> columnNames = new ArrayList<>();
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (!insertable[i]) {
+                continue;
+            }
+            String[] propertyColumns = singleTable.getPropertyColumnNames(i);
+            FieldAccessor field = meta.field(propertyNames[i]);
+            if (!(propertyTypes[i] instanceof BasicType<?>) || propertyColumns.length != 1 || field == null) {
+                return Optional.empty();
+            }
+            columns.add(field);
+            columnNames.add(propertyColumns[0]);
+        }
+
+        String table = singleTable.getTableName();
+        String idColumn = singleTable.getIdentifierColumnNames()[0];
+
+        StringBuilder insert = new StringBuilder("insert into ").append(table).append(" (").append(idColumn);
+        for (String column : columnNames) {
+            insert.append(", ").append(column);
+        }
+        insert.append(") values (?").append(", ?".repeat(columnNames.size())).append(')');
+
+        String sequence = "select nextval(pg_get_serial_sequence('" + table + "', '" + idColumn
+                + "')) from generate_series(1, ?)";
+
+        return Optional.of(new InsertPlan(insert.toString(), sequence, columns.toArray(FieldAccessor[]::new)));
+    }
+
+    public record BulkWriteResult(List<Object> entities, int inserted, int updated) {
+    }
+
+    public record BulkDeleteResult(List<Object> deleted, List<Object> notFound) {
+    }
+
+    private record DeletePlan(String deleteSql, String arrayType) {
+    }
+
+    private record InsertPlan(String insertSql, String sequenceSql, FieldAccessor[] columns) {
+    }
+}
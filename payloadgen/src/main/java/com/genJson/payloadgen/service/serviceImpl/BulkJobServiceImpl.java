@@ -0,0 +1,538 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.genJson.payloadgen.config.BulkProperties;
+import com.genJson.payloadgen.config.JobProperties;
+import com.genJson.payloadgen.service.BulkJobService;
+import com.genJson.payloadgen.service.BulkTransferService;
+import com.genJson.payloadgen.service.EntityRegistry;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+import com.genJson.payloadgen.service.routing.ReplicaRouting;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Background execution of large batches. Jobs run on a fixed pool behind a
+ * bounded queue (a full queue rejects the submission instead of piling up
+ * work), commit chunk by chunk so progress is visible and cancellation takes
+ * effect between chunks, and are forgotten some time after they finish.
+ */
+@Service
+public class BulkJobServiceImpl implements BulkJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkJobServiceImpl.class);
+
+    private final EntityRegistry registry;
+    private final EntityMapper entityMapper;
+    private final BulkEntityWriter bulkWriter;
+    private final BatchTransactionWriter batchWriter;
+    private final BulkTransferService bulkTransferService;
+    private final JobProperties properties;
+    private final ReplicaRouting routing;
+    private final int maxReportedFailures;
+    private final Path spoolDirectory;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public BulkJobServiceImpl(EntityRegistry registry, EntityMapper entityMapper, BulkEntityWriter bulkWriter,
+            BatchTransactionWriter batchWriter, BulkTransferService bulkTransferService, JobProperties properties,
+            BulkProperties bulkProperties, ReplicaRouting routing) {
+        this.registry = registry;
+        this.entityMapper = entityMapper;
+        this.bulkWriter = bulkWriter;
+        this.batchWriter = batchWriter;
+        this.bulkTransferService = bulkTransferService;
+        this.properties = properties;
+        this.routing = routing;
+        this.maxReportedFailures = bulkProperties.getMaxReportedFailures();
+        this.spoolDirectory = Path.of(properties.getSpoolDirectory() != null ? properties.getSpoolDirectory()
+                : System.getProperty("java.io.tmpdir"));
+        int threads = Math.max(1, properties.getThreads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                new CustomizableThreadFactory("payloadgen-job-"), new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Running jobs stop after their current chunk; queued ones end as cancelled
+        jobs.values().forEach(Job::requestCancel);
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    // 🔹 Payload jobs are validated on the request thread, so a bad payload is
+    // a 400 rather than a failed job
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> submit(String operation, Map<String, Object> payload) {
+        String entityName = (String) payload.get("entity");
+        int chunkSize = getIntegerValue(payload, "chunkSize", properties.getChunkSize());
+
+        Job job = switch (operation) {
+            case "create_or_update" -> {
+                Object data = payload.get("data");
+                List<Map<String, Object>> rows = data instanceof Map<?, ?> map
+                        ? List.of((Map<String, Object>) map)
+                        : (List<Map<String, Object>>) data;
+                if (rows == null || rows.isEmpty()) {
+                    throw new IllegalArgumentException("The 'data' list cannot be empty for a create_or_update job");
+                }
+                EntityMetadata meta = resolve(entityName, rows.get(0));
+                BatchTransactionWriter.Strategy strategy = payload.get("transaction") != null
+                        ? BatchTransactionWriter.Strategy.from(payload.get("transaction"))
+                        : BatchTransactionWriter.Strategy.CHUNKED;
+                yield new Job(operation, meta.getEntityClass().getSimpleName(), (long) rows.size(),
+                        current -> saveRows(current, meta, rows, strategy, chunkSize));
+            }
+            case "delete" -> {
+                List<?> ids = (List<?>) payload.get("ids");
+                if (ids == null || ids.isEmpty()) {
+                    throw new IllegalArgumentException("The 'ids' list cannot be empty for a delete job");
+                }
+                if (entityName == null) {
+                    throw new IllegalArgumentException("The 'entity' is required for a delete job");
+                }
+                EntityMetadata meta = resolve(entityName, null);
+                List<Object> idValues = new ArrayList<>(ids.size());
+                for (Object id : ids) {
+                    idValues.add(entityMapper.convertIdType(id, meta.getEntityClass()));
+                }
+                yield new Job(operation, meta.getEntityClass().getSimpleName(), (long) idValues.size(),
+                        current -> deleteIds(current, meta, idValues, chunkSize));
+            }
+            default -> throw new IllegalArgumentException("Unsupported job operation '" + operation
+                    + "'. Expected create_or_update or delete");
+        };
+        return enqueue(job);
+    }
+
+    // 🔹 Upload jobs: the body is spooled to disk on the request thread, then
+    // streamed through the regular ingest path by a worker
+    @Override
+    public Map<String, Object> submitUpload(String entityName, InputStream body, String contentType,
+            Integer chunkSize) throws IOException {
+        if (entityName != null && registry.getMetadata(entityName) == null) {
+            throw new IllegalArgumentException("Unknown or unregistered entity type");
+        }
+        // Refuse before reading the body when no queue slot could take it anyway
+        if (executor.getQueue().remainingCapacity() == 0) {
+            return rejected();
+        }
+
+        Path file = Files.createTempFile(spoolDirectory, "payloadgen-job-", ".upload");
+        long size;
+        try {
+            size = spool(body, file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        Job job = new Job("ingest", entityName, null,
+                current -> ingestFile(current, entityName, file, contentType, chunkSize));
+        job.spoolFile = file;
+        job.bytesTotal = size;
+        return enqueue(job);
+    }
+
+    @Override
+    public Map<String, Object> status(String jobId) {
+        purgeFinished();
+        Job job = jobs.get(jobId);
+        return job != null ? job.snapshot() : null;
+    }
+
+    @Override
+    public List<Map<String, Object>> list() {
+        purgeFinished();
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((Job job) -> job.submittedAt).reversed())
+                .map(Job::snapshot)
+                .toList();
+    }
+
+    @Override
+    public Map<String, Object> cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        if (job.cancel()) {
+            // Still queued: free the slot now rather than when a worker reaches it
+            executor.remove(job.task);
+            job.cleanup();
+        }
+        return job.snapshot();
+    }
+
+    private Map<String, Object> enqueue(Job job) {
+        purgeFinished();
+        job.task = () -> execute(job);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(job.task);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            job.cleanup();
+            return rejected();
+        }
+        log.info("Queued {} job {} for {}", job.operation, job.id, job.entity != null ? job.entity : "guessed entity");
+        return job.snapshot();
+    }
+
+    private Map<String, Object> rejected() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "rejected");
+        response.put("error", "Job queue is full (" + executor.getQueue().size() + " waiting)");
+        response.put("retryAfter", properties.getRetryAfter().toSeconds());
+        return response;
+    }
+
+    private void execute(Job job) {
+        if (!job.start()) {
+            job.cleanup();
+            return;
+        }
+        try {
+            job.finish(job.work.run(job), null);
+        } catch (Exception e) {
+            log.warn("Job {} failed", job.id, e);
+            job.finish(false, e);
+        } finally {
+            job.cleanup();
+            log.info("Job {} finished: {}", job.id, job.state);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean saveRows(Job job, EntityMetadata meta, List<Map<String, Object>> rows,
+            BatchTransactionWriter.Strategy strategy, int chunkSize) {
+        JpaRepository<Object, Object> repo = repository(meta);
+        // all_or_nothing is one transaction by definition, so it cannot be chunked
+        int size = strategy == BatchTransactionWriter.Strategy.ALL_OR_NOTHING ? rows.size() : chunkSize;
+        for (int from = 0; from < rows.size(); from += size) {
+            if (job.cancelRequested) {
+                return false;
+            }
+            List<Map<String, Object>> chunk = rows.subList(from, Math.min(from + size, rows.size()));
+            Map<String, Object> result = batchWriter.saveAll(meta, repo, chunk, strategy, chunk.size());
+            for (Map<String, Object> failure : (List<Map<String, Object>>) result.get("failures")) {
+                job.addFailure("index", from + (Integer) failure.get("index"), failure.get("error"));
+            }
+            job.advance(chunk.size(), ((Number) result.get("saved")).longValue(),
+                    ((Number) result.get("failed")).longValue(), 0);
+        }
+        return true;
+    }
+
+    private boolean deleteIds(Job job, EntityMetadata meta, List<Object> ids, int chunkSize) {
+        JpaRepository<Object, Object> repo = repository(meta);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            if (job.cancelRequested) {
+                return false;
+            }
+            List<Object> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            BulkEntityWriter.BulkDeleteResult result = bulkWriter.deleteAll(meta, repo, chunk);
+            job.advance(chunk.size(), result.deleted().size(), 0, result.notFound().size());
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean ingestFile(Job job, String entityName, Path file, String contentType, Integer chunkSize)
+            throws IOException {
+        Map<String, Object> summary;
+        try (InputStream in = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)), job)) {
+            summary = (Map<String, Object>) bulkTransferService.ingest(entityName, in, contentType, chunkSize,
+                    (received, written, failed) -> {
+                        job.progress(received, written, failed);
+                        return !job.cancelRequested;
+                    });
+        }
+        job.entity = (String) summary.get("entity");
+        for (Map<String, Object> failure : (List<Map<String, Object>>) summary.get("failures")) {
+            String position = failure.containsKey("line") ? "line" : "record";
+            job.addFailure(position, failure.get(position), failure.get("error"));
+        }
+        if ("aborted".equals(summary.get("status"))) {
+            // Malformed input; the chunks before it stay committed
+            throw new IllegalArgumentException((String) summary.get("error"));
+        }
+        return !"cancelled".equals(summary.get("status"));
+    }
+
+    private long spool(InputStream body, Path file) throws IOException {
+        long max = properties.getMaxUploadSize().toBytes();
+        long total = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > max) {
+                    throw new IllegalArgumentException("Upload exceeds " + properties.getMaxUploadSize());
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return total;
+    }
+
+    private void purgeFinished() {
+        Instant cutoff = Instant.now().minus(properties.getRetention());
+        List<Job> finished = jobs.values().stream()
+                .filter(job -> job.finishedAt != null)
+                .sorted(Comparator.comparing((Job job) -> job.finishedAt))
+                .toList();
+        int excess = finished.size() - properties.getMaxRetained();
+        for (int i = 0; i < finished.size(); i++) {
+            Job job = finished.get(i);
+            if (i < excess || job.finishedAt.isBefore(cutoff)) {
+                jobs.remove(job.id);
+            }
+        }
+    }
+
+    private EntityMetadata resolve(String entityName, Map<String, Object> sample) {
+        Class<?> entityClass = entityName != null
+                ? registry.getEntityClass(entityName)
+                : registry.guessEntityByPayload(sample);
+        if (entityClass == null || registry.getRepositoryByEntity(entityClass) == null) {
+            throw new IllegalArgumentException("Unknown or unregistered entity type");
+        }
+        return registry.getMetadata(entityClass);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JpaRepository<Object, Object> repository(EntityMetadata meta) {
+        return (JpaRepository<Object, Object>) registry.getRepositoryByEntity(meta.getEntityClass());
+    }
+
+    private int getIntegerValue(Map<String, Object> payload, String key, int defaultValue) {
+        Object value = payload.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = value instanceof Number number ? number.intValue() : Integer.parseInt(value.toString());
+            if (parsed <= 0) {
+                throw new IllegalArgumentException("'" + key + "' must be positive");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid integer value for '" + key + "': " + value);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        /** Returns false when the job stopped early because it was cancelled. */
+        boolean run(Job job) throws Exception;
+    }
+
+    private enum State {
+        QUEUED, RUNNING, SUCCEEDED, PARTIAL, FAILED, CANCELLED
+    }
+
+    private final class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final String operation;
+        private final Long total;
+        private final Work work;
+        private final Instant submittedAt = Instant.now();
+        private final List<Map<String, Object>> failures = new ArrayList<>();
+        // Captured on the submitting request; pinned to the primary as chunks commit
+        private final String caller = routing.currentCaller();
+        private volatile String entity;
+        private volatile State state = State.QUEUED;
+        private volatile boolean cancelRequested;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile long bytesRead;
+        private Runnable task;
+        private Path spoolFile;
+        private long bytesTotal;
+        private long processed;
+        private long succeeded;
+        private long failed;
+        private long notFound;
+        private String error;
+
+        Job(String operation, String entity, Long total, Work work) {
+            this.operation = operation;
+            this.entity = entity;
+            this.total = total;
+            this.work = work;
+        }
+
+        synchronized boolean start() {
+            if (state != State.QUEUED || cancelRequested) {
+                finishCancelledIfQueued();
+                return false;
+            }
+            state = State.RUNNING;
+            startedAt = Instant.now();
+            return true;
+        }
+
+        /** True when the job was still queued and is now cancelled. */
+        synchronized boolean cancel() {
+            cancelRequested = true;
+            return finishCancelledIfQueued();
+        }
+
+        void requestCancel() {
+            cancelRequested = true;
+        }
+
+        private boolean finishCancelledIfQueued() {
+            if (state != State.QUEUED) {
+                return false;
+            }
+            state = State.CANCELLED;
+            finishedAt = Instant.now();
+            return true;
+        }
+
+        synchronized void finish(boolean completed, Exception failure) {
+            if (failure != null) {
+                state = State.FAILED;
+                error = failure.getMessage();
+            } else if (!completed) {
+                state = State.CANCELLED;
+            } else {
+                state = failed == 0 ? State.SUCCEEDED : State.PARTIAL;
+            }
+            finishedAt = Instant.now();
+            routing.pin(caller);
+        }
+
+        synchronized void advance(long rows, long written, long rejected, long missing) {
+            routing.pin(caller);
+            processed += rows;
+            succeeded += written;
+            failed += rejected;
+            notFound += missing;
+        }
+
+        synchronized void progress(long received, long written, long rejected) {
+            routing.pin(caller);
+            processed = received;
+            succeeded = written;
+            failed = rejected;
+        }
+
+        synchronized void addFailure(String position, Object value, Object message) {
+            if (failures.size() < maxReportedFailures) {
+                Map<String, Object> failure = new LinkedHashMap<>();
+                failure.put(position, value);
+                failure.put("error", message);
+                failures.add(failure);
+            }
+        }
+
+        void cleanup() {
+            if (spoolFile != null) {
+                try {
+                    Files.deleteIfExists(spoolFile);
+                } catch (IOException e) {
+                    log.warn("Could not delete spooled upload {}", spoolFile, e);
+                }
+            }
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("jobId", id);
+            response.put("operation", operation);
+            response.put("entity", entity);
+            response.put("status", state == State.RUNNING && cancelRequested
+                    ? "cancelling" : state.name().toLowerCase());
+            response.put("submittedAt", submittedAt);
+            response.put("startedAt", startedAt);
+            response.put("finishedAt", finishedAt);
+            response.put("total", total);
+            response.put("processed", processed);
+            response.put("succeeded", succeeded);
+            response.put("failed", failed);
+            if ("delete".equals(operation)) {
+                response.put("notFound", notFound);
+            }
+            if (spoolFile != null) {
+                response.put("bytesRead", bytesRead);
+                response.put("bytesTotal", bytesTotal);
+            }
+
+            // Uploads have no row count up front, so their progress is by bytes
+            Double percentDone = total != null && total > 0 ? 100.0 * processed / total
+                    : bytesTotal > 0 ? 100.0 * bytesRead / bytesTotal : null;
+            response.put("percentDone", percentDone != null ? Math.round(percentDone * 10) / 10.0 : null);
+            double seconds = startedAt == null ? 0
+                    : Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now()).toMillis() / 1000.0;
+            response.put("elapsedSeconds", seconds);
+            response.put("rowsPerSecond", seconds > 0 ? Math.round(processed / seconds) : null);
+
+            response.put("failures", List.copyOf(failures));
+            response.put("failuresTruncated", failed > failures.size());
+            if (error != null) {
+                response.put("error", error);
+            }
+            return response;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final Job job;
+
+        CountingInputStream(InputStream in, Job job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                job.bytesRead++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                job.bytesRead += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.genJson.payloadgen.config.BulkProperties;
+import com.genJson.payloadgen.service.BulkTransferService;
+import com.genJson.payloadgen.service.EntityRegistry;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+import com.genJson.payloadgen.service.metadata.FieldAccessor;
+import com.genJson.payloadgen.service.routing.ReplicaRouting;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+@Service
+public class BulkTransferServiceImpl implements BulkTransferService {
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {
+    };
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final EntityRegistry registry;
+    private final ObjectMapper mapper;
+    private final EntityMapper entityMapper;
+    private final BulkEntityWriter bulkWriter;
+    private final BulkProperties bulkProperties;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReplicaRouting routing;
+    private final JsonFactory smileFactory = new SmileFactory();
+    private final JsonFactory cborFactory = new CBORFactory();
+
+    public BulkTransferServiceImpl(EntityRegistry registry, ObjectMapper mapper, EntityMapper entityMapper,
+            BulkEntityWriter bulkWriter, BulkProperties bulkProperties, EntityManager entityManager,
+            PlatformTransactionManager transactionManager, ReplicaRouting routing) {
+        this.registry = registry;
+        this.mapper = mapper;
+        this.entityMapper = entityMapper;
+        this.bulkWriter = bulkWriter;
+        this.bulkProperties = bulkProperties;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.routing = routing;
+    }
+
+    // 🔹 Streaming ingest: NDJSON or a top-level JSON array (or the Smile/CBOR
+    // equivalents), parsed row by row and
+    // written in fixed-size chunks so memory stays flat regardless of upload size
+    @Override
+    public Object ingest(String entityName, InputStream body, String contentType, Integer chunkSize)
+            throws IOException {
+        try {
+            return ingest(entityName, body, contentType, chunkSize, ChunkListener.NONE);
+        } finally {
+            routing.pinCurrentCaller();
+        }
+    }
+
+    @Override
+    public Object ingest(String entityName, InputStream body, String contentType, Integer chunkSize,
+            ChunkListener listener) throws IOException {
+        int limit = chunkSize != null && chunkSize > 0 ? chunkSize : bulkProperties.getIngestChunkSize();
+        IngestSummary summary = new IngestSummary(bulkProperties.getMaxReportedFailures());
+
+        EntityMetadata meta = entityName != null ? registry.getMetadata(entityName) : null;
+        if (entityName != null && meta == null) {
+            throw new IllegalArgumentException("Unknown or unregistered entity type");
+        }
+        JpaRepository<Object, Object> repo = null;
+
+        List<Object> chunk = new ArrayList<>(limit);
+        List<Position> chunkPositions = new ArrayList<>(limit);
+        // Related ids are collected per chunk and resolved with one lookup per type
+        RelationBatch relations = entityMapper.newRelationBatch();
+        JsonFactory factory = parserFactory(contentType);
+        boolean lines = false;
+
+        try (JsonParser parser = factory.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            // Only NDJSON text has a record per line; arrays may be minified and Smile/CBOR have no lines
+            lines = !array && factory == mapper.getFactory();
+
+            while (token != null && token != JsonToken.END_ARRAY) {
+                Position position = new Position(summary.received,
+                        lines ? parser.currentTokenLocation().getLineNr() : null);
+                if (token != JsonToken.START_OBJECT) {
+                    // A stray value is aborted like malformed input; keep what was already written
+                    writeChunk(meta, repo, chunk, chunkPositions, relations, summary);
+                    return summary.toResponse(meta, "aborted", "Expected a JSON object at " + position);
+                }
+                Map<String, Object> row = mapper.readValue(parser, ROW_TYPE);
+                summary.received++;
+
+                if (meta == null) {
+                    Class<?> guessed = registry.guessEntityByPayload(row);
+                    if (guessed == null) {
+                        throw new IllegalArgumentException("Unable to determine entity type from first record");
+                    }
+                    meta = registry.getMetadata(guessed);
+                }
+                if (repo == null) {
+                    repo = repository(meta);
+                }
+
+                try {
+                    relations.owner(position.record());
+                    chunk.add(entityMapper.mapToEntity(row, meta, relations));
+                    chunkPositions.add(position);
+                } catch (RuntimeException e) {
+                    summary.fail(position, e);
+                }
+
+                if (chunk.size() >= limit) {
+                    writeChunk(meta, repo, chunk, chunkPositions, relations, summary);
+                    relations = entityMapper.newRelationBatch();
+                    if (!listener.afterChunk(summary.received, summary.inserted + summary.updated, summary.failed)) {
+                        return summary.toResponse(meta, "cancelled", null);
+                    }
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            // Malformed input cannot be resynchronised; keep what was already written
+            writeChunk(meta, repo, chunk, chunkPositions, relations, summary);
+            JsonLocation location = e.getLocation();
+            return summary.toResponse(meta, "aborted", e.getOriginalMessage() + " at "
+                    + new Position(summary.received, lines && location != null ? location.getLineNr() : null));
+        }
+
+        writeChunk(meta, repo, chunk, chunkPositions, relations, summary);
+        listener.afterChunk(summary.received, summary.inserted + summary.updated, summary.failed);
+        return summary.toResponse(meta, summary.failed == 0 ? "success" : "partial", null);
+    }
+
+    private JsonFactory parserFactory(String contentType) {
+        if (contentType != null) {
+            MediaType type = MediaType.parseMediaType(contentType);
+            if (SMILE.includes(type)) {
+                return smileFactory;
+            }
+            if (MediaType.APPLICATION_CBOR.includes(type)) {
+                return cborFactory;
+            }
+        }
+        return mapper.getFactory();
+    }
+
+    private void writeChunk(EntityMetadata meta, JpaRepository<Object, Object> repo, List<Object> chunk,
+            List<Position> positions, RelationBatch relations, IngestSummary summary) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            // An unknown related id only fails the records that referenced it
+            Map<Object, RuntimeException> unresolved = entityMapper.resolveRelationsEach(relations);
+            if (!unresolved.isEmpty()) {
+                int kept = 0;
+                for (int i = 0; i < chunk.size(); i++) {
+                    RuntimeException failure = unresolved.get(positions.get(i).record());
+                    if (failure != null) {
+                        summary.fail(positions.get(i), failure);
+                    } else {
+                        chunk.set(kept, chunk.get(i));
+                        positions.set(kept++, positions.get(i));
+                    }
+                }
+                chunk.subList(kept, chunk.size()).clear();
+                positions.subList(kept, positions.size()).clear();
+            }
+            if (chunk.isEmpty()) {
+                return;
+            }
+            BulkEntityWriter.BulkWriteResult result = bulkWriter.saveAll(meta, repo, chunk);
+            summary.inserted += result.inserted();
+            summary.updated += result.updated();
+        } catch (RuntimeException e) {
+            for (Position position : positions) {
+                summary.fail(position, e);
+            }
+        } finally {
+            summary.chunks++;
+            chunk.clear();
+            positions.clear();
+            // Drop anything a surrounding (open-in-view) persistence context picked up
+            entityManager.clear();
+        }
+    }
+
+    // 🔹 Streaming export: one query, read through a fetch-size cursor inside a
+    // read-only transaction, each row written and detached before the next
+    @Override
+    public ExportStream export(String entityName, String format) {
+        EntityMetadata meta = registry.getMetadata(entityName);
+        if (meta == null) {
+            throw new IllegalArgumentException("Unknown or unregistered entity type");
+        }
+        String normalized = format == null ? "ndjson" : format.toLowerCase();
+        if (!normalized.equals("ndjson") && !normalized.equals("csv")) {
+            throw new IllegalArgumentException("Unsupported export format '" + format + "'. Expected ndjson or csv");
+        }
+        boolean csv = normalized.equals("csv");
+        // Decided on the request thread; the rows are written from an async one
+        ReplicaRouting.Target target = routing.readTarget();
+
+        return new ExportStream() {
+            @Override
+            public String contentType() {
+                return csv ? "text/csv" : "application/x-ndjson";
+            }
+
+            @Override
+            public void writeTo(OutputStream out) throws IOException {
+                try (ReplicaRouting.Scope scope = routing.use(target)) {
+                    readOnlyTransaction.executeWithoutResult(status -> {
+                        try (Stream<Object> rows = streamAll(meta)) {
+                            if (csv) {
+                                writeCsv(meta, rows, out);
+                            } else {
+                                writeNdjson(rows, out);
+                            }
+                        } catch (IOException e) {
+                            throw new ExportAbortedException(e);
+                        }
+                    });
+                } catch (ExportAbortedException e) {
+                    throw (IOException) e.getCause();
+                }
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Stream<Object> streamAll(EntityMetadata meta) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = (CriteriaQuery<Object>) cb.createQuery(meta.getEntityClass());
+        Root<?> root = query.from(meta.getEntityClass());
+        query.select(root).orderBy(cb.asc(root.get(meta.getIdField().getName())));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, bulkProperties.getExportFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private void writeNdjson(Stream<Object> rows, OutputStream out) throws IOException {
+        // No flush per row: each would reach the socket (and be a gzip sync flush) on its own
+        ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = mapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        for (Object row : (Iterable<Object>) rows::iterator) {
+            writer.writeValue(generator, row);
+            generator.writeRaw('\n');
+            entityManager.detach(row);
+        }
+        generator.flush();
+    }
+
+    private void writeCsv(EntityMetadata meta, Stream<Object> rows, OutputStream out) throws IOException {
+        List<FieldAccessor> columns = meta.getFields().stream().filter(FieldAccessor::isSimple).toList();
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+
+        for (int i = 0; i < columns.size(); i++) {
+            writer.write(i == 0 ? "" : ",");
+            writer.write(csvValue(columns.get(i).getName()));
+        }
+        writer.write("\r\n");
+
+        for (Object row : (Iterable<Object>) rows::iterator) {
+            for (int i = 0; i < columns.size(); i++) {
+                Object value = columns.get(i).get(row);
+                writer.write(i == 0 ? "" : ",");
+                writer.write(value == null ? "" : csvValue(value.toString()));
+            }
+            writer.write("\r\n");
+            entityManager.detach(row);
+        }
+        writer.flush();
+    }
+
+    // RFC 4180: quote values containing separators, quotes or line breaks
+    private static String csvValue(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // Client went away mid-stream; unwrapped again by the caller of writeTo
+    private static final class ExportAbortedException extends RuntimeException {
+        ExportAbortedException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private JpaRepository<Object, Object> repository(EntityMetadata meta) {
+        JpaRepository<?, ?> repo = registry.getRepositoryByEntity(meta.getEntityClass());
+        if (repo == null) {
+            throw new IllegalArgumentException("Unknown or unregistered entity type");
+        }
+        return (JpaRepository<Object, Object>) repo;
+    }
+
+    // Where an ingested record came from: its 0-based index in the body, plus its line for NDJSON text
+    private record Position(long record, Integer line) {
+
+        @Override
+        public String toString() {
+            return line != null ? "line " + line : "record " + record;
+        }
+    }
+
+    private static final class IngestSummary {
+        private final int maxReportedFailures;
+        private final List<Map<String, Object>> failures = new ArrayList<>();
+        private long received;
+        private long inserted;
+        private long updated;
+        private long failed;
+        private long chunks;
+
+        IngestSummary(int maxReportedFailures) {
+            this.maxReportedFailures = maxReportedFailures;
+        }
+
+        void fail(Position position, RuntimeException e) {
+            failed++;
+            if (failures.size() < maxReportedFailures) {
+                Map<String, Object> failure = new LinkedHashMap<>();
+                failure.put("record", position.record());
+                if (position.line() != null) {
+                    failure.put("line", position.line());
+                }
+                failure.put("error", e.getMessage());
+                failures.add(failure);
+            }
+        }
+
+        Map<String, Object> toResponse(EntityMetadata meta, String status, String error) {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("status", status);
+            response.put("entity", meta != null ? meta.getEntityClass().getSimpleName() : null);
+            response.put("received", received);
+            response.put("inserted", inserted);
+            response.put("updated", updated);
+            response.put("failed", failed);
+            response.put("chunks", chunks);
+            response.put("failures", failures);
+            response.put("failuresTruncated", failed > failures.size());
+            if (error != null) {
+                response.put("error", error);
+            }
+            return response;
+        }
+    }
+}
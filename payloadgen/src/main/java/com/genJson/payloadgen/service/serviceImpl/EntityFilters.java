@@ -0,0 +1,153 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+import com.genJson.payloadgen.service.metadata.FieldAccessor;
+
+/**
+ * Compiles the {@code filter} option of find_all into a {@link Specification}.
+ * <pre>
+ * {"and": [
+ *     {"field": "category", "op": "eq", "value": "tools"},
+ *     {"field": "price", "op": "range", "from": 10, "to": 50},
+ *     {"or": [
+ *         {"field": "productName", "op": "prefix", "value": "Dri"},
+ *         {"field": "stock", "op": "null"}
+ *     ]}
+ * ]}
+ * </pre>
+ * Operators: {@code eq}, {@code in} (list value), {@code range} (inclusive
+ * {@code from} and/or {@code to}), {@code prefix} (string fields) and
+ * {@code null} ({@code "value": false} for not null). Fields and values are
+ * resolved and converted while compiling, so a bad filter fails before any SQL
+ * runs; values end up as bind parameters.
+ */
+public final class EntityFilters {
+
+    private static final int MAX_DEPTH = 8;
+
+    private EntityFilters() {
+    }
+
+    /**
+     * Returns {@code null} when {@code filter} is {@code null}.
+     */
+    public static Specification<Object> compile(EntityMetadata meta, Object filter) {
+        return filter == null ? null : node(meta, filter, 0);
+    }
+
+    private static Specification<Object> node(EntityMetadata meta, Object node, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Filter is nested deeper than " + MAX_DEPTH + " levels");
+        }
+        if (!(node instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("Each filter must be a JSON object");
+        }
+
+        boolean and = map.containsKey("and");
+        if (and || map.containsKey("or")) {
+            String group = and ? "and" : "or";
+            if (map.size() != 1) {
+                throw new IllegalArgumentException("'" + group + "' must be the only key of its filter object");
+            }
+            if (!(map.get(group) instanceof List<?> children) || children.isEmpty()) {
+                throw new IllegalArgumentException("'" + group + "' expects a non-empty list of filters");
+            }
+            List<Specification<Object>> specs = new ArrayList<>(children.size());
+            for (Object child : children) {
+                specs.add(node(meta, child, depth + 1));
+            }
+            return and ? Specification.allOf(specs) : Specification.anyOf(specs);
+        }
+        return condition(meta, map);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Specification<Object> condition(EntityMetadata meta, Map<?, ?> condition) {
+        Object name = condition.get("field");
+        FieldAccessor field = name != null ? meta.field(name.toString()) : null;
+        if (field == null || !field.isSimple()) {
+            throw new IllegalArgumentException(
+                    "Cannot filter on field '" + name + "' of " + meta.getEntityClass().getSimpleName());
+        }
+        String path = field.getName();
+        String op = condition.get("op") != null ? condition.get("op").toString().toLowerCase() : "eq";
+
+        switch (op) {
+            case "eq" -> {
+                Object value = required(field, condition, "value");
+                return (root, query, cb) -> cb.equal(root.get(path), value);
+            }
+            case "in" -> {
+                if (!(condition.get("value") instanceof List<?> raw) || raw.isEmpty()) {
+                    throw new IllegalArgumentException("'in' on '" + path + "' expects a non-empty list value");
+                }
+                List<Object> values = new ArrayList<>(raw.size());
+                for (Object item : raw) {
+                    values.add(convert(field, item));
+                }
+                return (root, query, cb) -> root.get(path).in(values);
+            }
+            case "range" -> {
+                Class<?> type = field.getType();
+                if (!type.isPrimitive() && !Comparable.class.isAssignableFrom(type)) {
+                    throw new IllegalArgumentException("'range' is not supported on '" + path + "'");
+                }
+                Comparable from = (Comparable) convert(field, condition.get("from"));
+                Comparable to = (Comparable) convert(field, condition.get("to"));
+                if (from == null && to == null) {
+                    throw new IllegalArgumentException("'range' on '" + path + "' needs 'from' and/or 'to'");
+                }
+                return (root, query, cb) -> {
+                    if (from == null) {
+                        return cb.lessThanOrEqualTo(root.get(path), to);
+                    }
+                    if (to == null) {
+                        return cb.greaterThanOrEqualTo(root.get(path), from);
+                    }
+                    return cb.between(root.get(path), from, to);
+                };
+            }
+            case "prefix" -> {
+                if (field.getType() != String.class) {
+                    throw new IllegalArgumentException("'prefix' needs a string field, '" + path + "' is not");
+                }
+                String pattern = escapeLike((String) required(field, condition, "value")) + "%";
+                return (root, query, cb) -> cb.like(root.get(path), pattern, '\\');
+            }
+            case "null" -> {
+                Object value = condition.get("value");
+                boolean isNull = value == null || Boolean.parseBoolean(value.toString());
+                return (root, query, cb) -> isNull ? cb.isNull(root.get(path)) : cb.isNotNull(root.get(path));
+            }
+            default -> throw new IllegalArgumentException(
+                    "Unknown filter operator '" + op + "'. Expected eq, in, range, prefix or null");
+        }
+    }
+
+    private static Object required(FieldAccessor field, Map<?, ?> condition, String key) {
+        Object value = convert(field, condition.get(key));
+        if (value == null) {
+            throw new IllegalArgumentException("Filter on '" + field.getName() + "' is missing '" + key
+                    + "' (use the null operator to match missing values)");
+        }
+        return value;
+    }
+
+    private static Object convert(FieldAccessor field, Object value) {
+        try {
+            return field.convert(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid filter value for '" + field.getName() + "': " + e.getMessage(), e);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
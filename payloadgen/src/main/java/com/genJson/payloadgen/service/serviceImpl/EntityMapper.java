@@ -0,0 +1,135 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import com.genJson.payloadgen.config.MappingProperties;
+import com.genJson.payloadgen.service.EntityRegistry;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+import com.genJson.payloadgen.service.metadata.FieldAccessor;
+
+/**
+ * Maps raw payload maps onto entity instances using the precomputed
+ * {@link EntityMetadata}. Shared by the CRUD, bulk and streaming paths.
+ */
+@Component
+public class EntityMapper {
+
+    private final EntityRegistry registry;
+    private final MappingProperties properties;
+
+    public EntityMapper(EntityRegistry registry, MappingProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    /**
+     * Request-scoped relation collector; pass it to
+     * {@link #mapToEntity(Map, EntityMetadata, RelationBatch)} for every row of a
+     * request and call {@link #resolveRelations} once before saving.
+     */
+    public RelationBatch newRelationBatch() {
+        return new RelationBatch(properties.isRelationReferences(), properties.getRelationChunkSize());
+    }
+
+    /**
+     * Loads all related entities collected in {@code relations} (one query per
+     * target type) and assigns them to the mapped entities.
+     */
+    public void resolveRelations(RelationBatch relations) {
+        if (!relations.isEmpty()) {
+            relations.resolve();
+        }
+    }
+
+    /**
+     * Same as {@link #resolveRelations}, but a missing related entity only fails
+     * the rows that referenced it (see {@link RelationBatch#owner}); returns the
+     * not-found error per owner.
+     */
+    public Map<Object, RuntimeException> resolveRelationsEach(RelationBatch relations) {
+        return relations.isEmpty() ? Map.of() : relations.resolveEach();
+    }
+
+    // 🔹 Single object: map and resolve its relations right away
+    public Object mapToEntity(Map<String, Object> map, EntityMetadata meta) {
+        RelationBatch relations = newRelationBatch();
+        Object entity = mapToEntity(map, meta, relations);
+        resolveRelations(relations);
+        return entity;
+    }
+
+    // 🔹 Handles mapping of simple + related entities (auto structured/raw
+    // detection). Related ids are only recorded here and filled in by
+    // resolveRelations, so a batch costs one lookup per related type.
+    @SuppressWarnings("unchecked")
+    public Object mapToEntity(Map<String, Object> map, EntityMetadata meta, RelationBatch relations) {
+        try {
+            Object entity = meta.newInstance();
+
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                String fieldName = entry.getKey();
+                Object value = entry.getValue();
+
+                FieldAccessor field = meta.field(fieldName);
+                if (field == null) {
+                    continue;
+                }
+
+                Class<?> fieldType = field.getType();
+
+                if (field.isSimple()) {
+                    field.set(entity, field.convert(value));
+                } else if (value instanceof Map<?, ?> nestedMap) {
+                    field.set(entity, mapToEntity((Map<String, Object>) nestedMap, registry.getMetadata(fieldType),
+                            relations));
+                } else if (value instanceof Number || value instanceof String) {
+                    JpaRepository<?, ?> relatedRepo = registry.getRepositoryByEntity(fieldType);
+                    if (relatedRepo != null) {
+                        Object idValue = convertIdType(value, fieldType);
+                        relations.defer(registry.getMetadata(fieldType), (JpaRepository<Object, Object>) relatedRepo,
+                                idValue, fieldName, related -> field.set(entity, related));
+                    }
+                } else if (value instanceof List<?> listVal) {
+                    List<Object> relatedList = new ArrayList<>(listVal.size());
+                    Class<?> genericType = field.getElementType();
+                    for (Object item : listVal) {
+                        if (item instanceof Map<?, ?> m) {
+                            relatedList.add(mapToEntity((Map<String, Object>) m, registry.getMetadata(genericType),
+                                    relations));
+                        } else {
+                            JpaRepository<?, ?> relatedRepo = registry.getRepositoryByEntity(genericType);
+                            if (relatedRepo != null) {
+                                // Reserve the slot so the list keeps the payload order
+                                int slot = relatedList.size();
+                                relatedList.add(null);
+                                Object idValue = convertIdType(item, genericType);
+                                relations.defer(registry.getMetadata(genericType),
+                                        (JpaRepository<Object, Object>) relatedRepo, idValue, fieldName,
+                                        related -> relatedList.set(slot, related));
+                            }
+                        }
+                    }
+                    field.set(entity, relatedList);
+                }
+            }
+
+            return entity;
+        } catch (Exception e) {
+            throw new RuntimeException("Error mapping payload to entity: " + e.getMessage(), e);
+        }
+    }
+
+    // 🔹 Convert ID to the entity's declared ID type
+    public Object convertIdType(Object id, Class<?> entityClass) {
+        try {
+            return registry.getMetadata(entityClass).convertId(id);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to determine ID type: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genJson.payloadgen.service.cache.EntityCacheManager;
+import com.genJson.payloadgen.service.change.EntityChangedEvent;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+import com.genJson.payloadgen.service.metadata.FieldAccessor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Partial updates as a single {@code UPDATE ... WHERE id = ?} that sets only
+ * the supplied columns. Nothing is loaded first; the affected row count tells
+ * whether the row existed. Entities with a {@code @Version} field get the
+ * version bumped in the same statement, and a supplied expected version is
+ * added to the WHERE clause so a concurrent update makes the patch miss
+ * instead of being overwritten.
+ */
+@Component
+public class EntityPatcher {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityCacheManager cacheManager;
+    private final ApplicationEventPublisher events;
+
+    public EntityPatcher(EntityManager entityManager, PlatformTransactionManager transactionManager,
+            EntityCacheManager cacheManager, ApplicationEventPublisher events) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.events = events;
+    }
+
+    /**
+     * Applies {@code values} (field name to raw payload value, explicit nulls
+     * included) to the row with the given id. {@code expectedVersion} is ignored
+     * for entities without a version field.
+     */
+    @SuppressWarnings("unchecked")
+    public PatchResult patch(EntityMetadata meta, Object id, Map<String, Object> values, Object expectedVersion) {
+        FieldAccessor idField = meta.getIdField();
+        FieldAccessor versionField = meta.getVersionField();
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Object> update = (CriteriaUpdate<Object>) cb.createCriteriaUpdate(meta.getEntityClass());
+        Root<Object> root = update.from((Class<Object>) meta.getEntityClass());
+
+        List<String> columns = new ArrayList<>(values.size());
+        Map<ParameterExpression<Object>, Object> bindings = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            FieldAccessor field = meta.field(entry.getKey());
+            if (field == null) {
+                throw new IllegalArgumentException(
+                        "Unknown field '" + entry.getKey() + "' on " + meta.getEntityClass().getSimpleName());
+            }
+            if (field == idField || field == versionField) {
+                continue;
+            }
+            if (!field.isSimple()) {
+                throw new IllegalArgumentException("Field '" + field.getName() + "' cannot be patched");
+            }
+            Path<Object> path = root.get(field.getName());
+            Object value = field.convert(entry.getValue());
+            if (value == null) {
+                update.<Object>set(path, cb.nullLiteral((Class<Object>) field.getType()));
+            } else {
+                // Bound rather than inlined, so every patch of the same columns shares one statement
+                ParameterExpression<Object> parameter = cb.parameter((Class<Object>) value.getClass());
+                update.<Object>set(path, parameter);
+                bindings.put(parameter, value);
+            }
+            columns.add(field.getName());
+        }
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+
+        Object version = null;
+        List<Predicate> where = new ArrayList<>(2);
+        where.add(cb.equal(root.get(idField.getName()), id));
+        if (versionField != null) {
+            Path<Number> versionPath = root.get(versionField.getName());
+            update.<Number>set(versionPath, cb.sum(versionPath, (Number) versionField.convert(1)));
+            if (expectedVersion != null) {
+                version = versionField.convert(expectedVersion);
+                where.add(cb.equal(versionPath, version));
+            }
+        }
+        update.where(where.toArray(Predicate[]::new));
+
+        Object expected = version;
+        return transactionTemplate.execute(status -> {
+            Query query = entityManager.createQuery(update);
+            bindings.forEach(query::setParameter);
+            int matched = query.executeUpdate();
+            if (matched > 0) {
+                cacheManager.evict(meta.getEntityClass(), List.of(id));
+                events.publishEvent(EntityChangedEvent.updated(meta.getEntityClass(), List.of(id)));
+                Object newVersion = expected != null ? versionField.convert(((Number) expected).longValue() + 1) : null;
+                return new PatchResult(PatchStatus.SUCCESS, id, columns, newVersion);
+            }
+            // Only a miss pays for the second query that tells a stale version from a missing row
+            if (expected != null && exists(meta, id)) {
+                return new PatchResult(PatchStatus.CONFLICT, id, columns, null);
+            }
+            return new PatchResult(PatchStatus.NOT_FOUND, id, columns, null);
+        });
+    }
+
+    private boolean exists(EntityMetadata meta, Object id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<?> root = query.from(meta.getEntityClass());
+        Expression<Long> count = cb.count(root);
+        query.select(count).where(cb.equal(root.get(meta.getIdField().getName()), id));
+        return entityManager.createQuery(query).getSingleResult() > 0;
+    }
+
+    public enum PatchStatus {
+        SUCCESS, NOT_FOUND, CONFLICT
+    }
+
+    public record PatchResult(PatchStatus status, Object id, List<String> fields, Object version) {
+
+        public Map<String, Object> toResponse() {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("status", status.name().toLowerCase());
+            response.put("patched", status == PatchStatus.SUCCESS);
+            response.put("id", id);
+            response.put("fields", fields);
+            if (version != null) {
+                response.put("version", version);
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.JpaOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+import com.genJson.payloadgen.service.metadata.FieldAccessor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Criteria-based queries used by find_all and read beyond plain repository
+ * calls: keyset paging, column projections and row counts.
+ */
+@Component
+public class EntityQueries {
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper mapper;
+
+    public EntityQueries(EntityManager entityManager, JdbcTemplate jdbcTemplate, ObjectMapper mapper) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Validates a {@code fields} option (list or comma-separated string) against
+     * the entity. Returns {@code null} when no projection was requested.
+     */
+    public List<FieldAccessor> projection(EntityMetadata meta, Object fields) {
+        if (fields == null) {
+            return null;
+        }
+        List<?> names = fields instanceof List<?> list ? list : List.of(fields.toString().split(","));
+        Set<FieldAccessor> projection = new LinkedHashSet<>();
+        for (Object name : names) {
+            String trimmed = name == null ? "" : name.toString().trim();
+            FieldAccessor field = meta.field(trimmed);
+            if (field == null || !field.isSimple()) {
+                throw new IllegalArgumentException(
+                        "Cannot select field '" + trimmed + "' on " + meta.getEntityClass().getSimpleName());
+            }
+            projection.add(field);
+        }
+        if (projection.isEmpty()) {
+            throw new IllegalArgumentException("The 'fields' list cannot be empty");
+        }
+        return List.copyOf(projection);
+    }
+
+    /**
+     * Offset page that selects only the projected columns; rows come back as
+     * maps and no entity is instantiated or attached to the persistence context.
+     */
+    public Page<Map<String, Object>> projectedPage(EntityMetadata meta, List<FieldAccessor> projection,
+            Specification<Object> filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        @SuppressWarnings("unchecked")
+        Root<Object> root = (Root<Object>) query.from(meta.getEntityClass());
+        query.multiselect(selections(root, projection));
+        Predicate where = filter != null ? filter.toPredicate(root, query, cb) : null;
+        if (where != null) {
+            query.where(where);
+        }
+
+        List<Order> order = new ArrayList<>();
+        for (Sort.Order sortOrder : pageable.getSort()) {
+            FieldAccessor field = meta.field(sortOrder.getProperty());
+            if (field == null || !field.isSimple()) {
+                throw new IllegalArgumentException(
+                        "Cannot sort by '" + sortOrder.getProperty() + "' on " + meta.getEntityClass().getSimpleName());
+            }
+            Path<?> path = root.get(field.getName());
+            order.add(sortOrder.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        query.orderBy(order);
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        List<Map<String, Object>> content = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            content.add(toMap(row, projection));
+        }
+        // Skips the count when the page alone tells the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> countExact(meta, filter));
+    }
+
+    /**
+     * Projected columns of one row, or {@code null} when the id does not exist.
+     */
+    public Map<String, Object> projectById(EntityMetadata meta, List<FieldAccessor> projection, Object id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(meta.getEntityClass());
+        query.multiselect(selections(root, projection))
+                .where(cb.equal(root.get(meta.getIdField().getName()), id));
+
+        List<Tuple> rows = entityManager.createQuery(query).getResultList();
+        return rows.isEmpty() ? null : toMap(rows.get(0), projection);
+    }
+
+    private static List<Selection<?>> selections(Root<?> root, List<FieldAccessor> projection) {
+        List<Selection<?>> selections = new ArrayList<>(projection.size());
+        for (FieldAccessor field : projection) {
+            selections.add(root.get(field.getName()));
+        }
+        return selections;
+    }
+
+    // Tuple elements are read by position: the same path may be selected twice
+    private static Map<String, Object> toMap(Tuple row, List<FieldAccessor> projection) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < projection.size(); i++) {
+            values.put(projection.get(i).getName(), row.get(i));
+        }
+        return values;
+    }
+
+    /**
+     * Keyset (seek) page: rows after the position encoded in {@code cursor},
+     * ordered by {@code (sortBy, id)}. No OFFSET is used, so every page costs
+     * the same as the first one; the total is only counted when asked for.
+     * With a {@code projection} only those columns (plus the cursor key) are
+     * selected and rows are returned as maps.
+     */
+    public Map<String, Object> keysetPage(EntityMetadata meta, List<FieldAccessor> projection,
+            Specification<Object> filter, String sortBy, boolean descending, String cursor, int size,
+            CountMode countMode) {
+        FieldAccessor idField = meta.getIdField();
+        FieldAccessor sortField = sortBy != null && !sortBy.isEmpty() ? meta.field(sortBy) : idField;
+        if (sortField == null || !sortField.isSimple()) {
+            throw new IllegalArgumentException("Cannot sort by '" + sortBy + "' on " + meta.getEntityClass().getSimpleName());
+        }
+        boolean byId = sortField == idField;
+        if (filter != null && countMode == CountMode.ESTIMATED) {
+            throw new IllegalArgumentException("Estimated counts ignore filters; use count 'exact' or 'none'");
+        }
+
+        CursorPosition position = cursor != null && !cursor.isEmpty() ? decodeCursor(cursor) : null;
+        if (position != null && (!sortField.getName().equals(position.sort()) || descending != position.descending())) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort order");
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        @SuppressWarnings("unchecked")
+        CriteriaQuery<Object> query = (CriteriaQuery<Object>) (projection == null
+                ? cb.createQuery(meta.getEntityClass())
+                : cb.createTupleQuery());
+        @SuppressWarnings("unchecked")
+        Root<Object> root = (Root<Object>) query.from(meta.getEntityClass());
+        Path<Comparable<Object>> idPath = root.get(idField.getName());
+        Path<Comparable<Object>> keyPath = root.get(sortField.getName());
+
+        List<Predicate> where = new ArrayList<>(2);
+        Predicate filtered = filter != null ? filter.toPredicate(root, query, cb) : null;
+        if (filtered != null) {
+            where.add(filtered);
+        }
+        if (position != null) {
+            Object lastId = meta.convertId(position.id());
+            Object lastKey = byId ? null : sortField.convert(position.key());
+            where.add(byId
+                    ? seekById(cb, idPath, lastId, descending)
+                    : seek(cb, keyPath, idPath, lastKey, lastId, descending));
+        }
+        query.where(where.toArray(Predicate[]::new));
+
+        // Nulls sort last ascending and first descending, matching a plain btree index
+        List<Order> order = new ArrayList<>(2);
+        if (!byId) {
+            order.add(((JpaOrder) (descending ? cb.desc(keyPath) : cb.asc(keyPath)))
+                    .nullPrecedence(descending ? NullPrecedence.FIRST : NullPrecedence.LAST));
+        }
+        order.add(descending ? cb.desc(idPath) : cb.asc(idPath));
+        if (projection == null) {
+            query.select(root);
+        } else {
+            // The cursor needs the key and id of the last row even when they were not asked for
+            List<Selection<?>> selections = selections(root, projection);
+            selections.add(keyPath);
+            selections.add(idPath);
+            query.multiselect(selections);
+        }
+        query.orderBy(order);
+
+        List<Object> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        boolean hasNext = rows.size() > size;
+        List<Object> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Object last = page.get(page.size() - 1);
+            Object lastKey = projection == null ? sortField.get(last) : ((Tuple) last).get(projection.size());
+            Object lastId = projection == null ? meta.getId(last) : ((Tuple) last).get(projection.size() + 1);
+            nextCursor = encodeCursor(new CursorPosition(sortField.getName(), descending, byId ? null : lastKey, lastId));
+        }
+
+        List<Object> content = page;
+        if (projection != null) {
+            content = new ArrayList<>(page.size());
+            for (Object row : page) {
+                content.add(toMap((Tuple) row, projection));
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "success");
+        response.put("mode", "cursor");
+        response.put("size", size);
+        response.put("sortBy", sortField.getName());
+        response.put("sortOrder", descending ? "desc" : "asc");
+        response.put("hasNext", hasNext);
+        response.put("nextCursor", nextCursor);
+        if (countMode != CountMode.NONE) {
+            response.put("count", countMode.name().toLowerCase());
+            response.put("totalElements", countMode == CountMode.EXACT ? countExact(meta, filter)
+                    : countEstimated(meta));
+        }
+        response.put("data", content);
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate seekById(CriteriaBuilder cb, Path<Comparable<Object>> idPath, Object lastId, boolean descending) {
+        return descending ? cb.lessThan(idPath, (Comparable<Object>) lastId)
+                : cb.greaterThan(idPath, (Comparable<Object>) lastId);
+    }
+
+    // (key, id) > (lastKey, lastId), written as "key >= k and (key > k or id > i)"
+    // so the leading range on key can still drive an index scan
+    @SuppressWarnings("unchecked")
+    private Predicate seek(CriteriaBuilder cb, Path<Comparable<Object>> keyPath, Path<Comparable<Object>> idPath,
+            Object lastKey, Object lastId, boolean descending) {
+        Comparable<Object> id = (Comparable<Object>) lastId;
+        if (lastKey == null) {
+            Predicate inNulls = cb.and(cb.isNull(keyPath), descending ? cb.lessThan(idPath, id) : cb.greaterThan(idPath, id));
+            // Descending pages visit the nulls first, so every non-null row is still ahead
+            return descending ? cb.or(inNulls, cb.isNotNull(keyPath)) : inNulls;
+        }
+
+        Comparable<Object> key = (Comparable<Object>) lastKey;
+        Predicate after = descending
+                ? cb.and(cb.lessThanOrEqualTo(keyPath, key), cb.or(cb.lessThan(keyPath, key), cb.lessThan(idPath, id)))
+                : cb.and(cb.greaterThanOrEqualTo(keyPath, key),
+                        cb.or(cb.greaterThan(keyPath, key), cb.greaterThan(idPath, id)));
+        // Ascending pages visit the nulls last
+        return descending ? after : cb.or(after, cb.isNull(keyPath));
+    }
+
+    public long countExact(EntityMetadata meta) {
+        return countExact(meta, null);
+    }
+
+    public long countExact(EntityMetadata meta, Specification<Object> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        @SuppressWarnings("unchecked")
+        Root<Object> root = (Root<Object>) query.from(meta.getEntityClass());
+        query.select(cb.count(root));
+        Predicate where = filter != null ? filter.toPredicate(root, query, cb) : null;
+        if (where != null) {
+            query.where(where);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Row estimate from the PostgreSQL planner statistics; {@code null} when no
+     * statistics are available (table never analyzed, or not PostgreSQL).
+     */
+    public Long countEstimated(EntityMetadata meta) {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(meta.getEntityClass());
+        if (!(sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQLDialect)
+                || !(persister instanceof AbstractEntityPersister entityPersister)) {
+            return null;
+        }
+
+        List<Long> estimate = jdbcTemplate.queryForList(
+                "select reltuples::bigint from pg_class where oid = to_regclass(?)", Long.class,
+                entityPersister.getTableName());
+        return estimate.isEmpty() || estimate.get(0) < 0 ? null : estimate.get(0);
+    }
+
+    private String encodeCursor(CursorPosition position) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mapper.writeValueAsBytes(position));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode cursor: " + e.getMessage(), e);
+        }
+    }
+
+    private CursorPosition decodeCursor(String cursor) {
+        try {
+            return mapper.readValue(Base64.getUrlDecoder().decode(cursor), CursorPosition.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public enum CountMode {
+        NONE, EXACT, ESTIMATED;
+
+        public static CountMode from(Object value) {
+            if (value == null) {
+                return NONE;
+            }
+            try {
+                return valueOf(value.toString().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid count mode '" + value + "'. Expected none, exact or estimated");
+            }
+        }
+    }
+
+    // Opaque to clients: base64url(JSON) of the sort it belongs to and the last row's key and id
+    private record CursorPosition(String sort, boolean descending, Object key, Object id) {
+    }
+}
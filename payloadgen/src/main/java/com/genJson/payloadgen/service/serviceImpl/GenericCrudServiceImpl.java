@@ -1,40 +1,88 @@
 package com.genJson.payloadgen.service.serviceImpl;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genJson.payloadgen.config.BulkProperties;
 import com.genJson.payloadgen.service.EntityRegistry;
 import com.genJson.payloadgen.service.GenericCrudService;
+import com.genJson.payloadgen.service.cache.EntityCacheManager;
+import com.genJson.payloadgen.service.change.EntityChangedEvent;
+import com.genJson.payloadgen.service.change.EntityVersionTracker;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+import com.genJson.payloadgen.service.metadata.FieldAccessor;
+import com.genJson.payloadgen.service.metrics.CrudMetrics;
+import com.genJson.payloadgen.service.routing.ReplicaRouting;
 
 @Service
 public class GenericCrudServiceImpl implements GenericCrudService {
 
     private final EntityRegistry registry;
     private final ObjectMapper mapper;
-
-    public GenericCrudServiceImpl(EntityRegistry registry, ObjectMapper mapper) {
+    private final EntityMapper entityMapper;
+    private final BulkEntityWriter bulkWriter;
+    private final BulkProperties bulkProperties;
+    private final EntityQueries queries;
+    private final EntityCacheManager cacheManager;
+    private final CrudMetrics metrics;
+    private final ParallelBulkWriter parallelWriter;
+    private final EntityPatcher patcher;
+    private final WriteCoalescer writeCoalescer;
+    private final BatchTransactionWriter batchWriter;
+    private final EntityVersionTracker versionTracker;
+    private final ReplicaRouting routing;
+    private final ApplicationEventPublisher events;
+
+    public GenericCrudServiceImpl(EntityRegistry registry, ObjectMapper mapper, EntityMapper entityMapper,
+            BulkEntityWriter bulkWriter, BulkProperties bulkProperties, EntityQueries queries,
+            EntityCacheManager cacheManager, CrudMetrics metrics, ParallelBulkWriter parallelWriter,
+            EntityPatcher patcher, WriteCoalescer writeCoalescer, BatchTransactionWriter batchWriter,
+            EntityVersionTracker versionTracker, ReplicaRouting routing, ApplicationEventPublisher events) {
         this.registry = registry;
         this.mapper = mapper;
+        this.entityMapper = entityMapper;
+        this.bulkWriter = bulkWriter;
+        this.bulkProperties = bulkProperties;
+        this.queries = queries;
+        this.cacheManager = cacheManager;
+        this.metrics = metrics;
+        this.parallelWriter = parallelWriter;
+        this.patcher = patcher;
+        this.writeCoalescer = writeCoalescer;
+        this.batchWriter = batchWriter;
+        this.versionTracker = versionTracker;
+        this.routing = routing;
+        this.events = events;
     }
 
     // 🔹 Create or Update (handles both single and batch)
-    @SuppressWarnings("unchecked")
     @Override
     public Object saveOrUpdate(Map<String, Object> payload) {
+        try {
+            return metrics.observe("create_or_update", observation -> saveOrUpdate(payload, observation));
+        } finally {
+            // Also after a failure: earlier chunks or partitions may have committed
+            routing.pinCurrentCaller();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object saveOrUpdate(Map<String, Object> payload, CrudMetrics.Observation observation) {
         String entityName = (String) payload.get("entity");
         Object data = payload.get("data");
 
@@ -61,20 +109,73 @@ public class GenericCrudServiceImpl implements GenericCrudService {
         if (entityClass == null || repo == null) {
             throw new IllegalArgumentException("Unknown or unregistered entity type");
         }
+        observation.entity(entityClass, entityName == null);
+
+        EntityMetadata meta = registry.getMetadata(entityClass);
 
         // Handle list or single object
         if (data instanceof List<?>) {
             List<?> dataList = (List<?>) data;
-            List<Object> saved = new ArrayList<>();
+            observation.rowsIn(dataList.size()).batchSize(dataList.size());
+
+            // Explicit transaction semantics with per-index failure reporting
+            if (payload.get("transaction") != null) {
+                Map<String, Object> result = batchWriter.saveAll(meta, (JpaRepository<Object, Object>) repo,
+                        (List<Map<String, Object>>) dataList,
+                        BatchTransactionWriter.Strategy.from(payload.get("transaction")),
+                        getIntegerValue(payload, "commitEvery", null));
+                observation.rowsOut((Long) result.get("saved"));
+                return result;
+            }
+
+            // Parallel mode: partitions mapped and committed concurrently, reported per partition
+            if (getBooleanValue(payload, "parallel", false)) {
+                ParallelBulkWriter.ParallelResult result = parallelWriter.saveAll(
+                        entityName != null ? entityName : entityClass.getSimpleName(), meta,
+                        (JpaRepository<Object, Object>) repo, (List<Map<String, Object>>) dataList,
+                        getIntegerValue(payload, "parallelism", null));
+                observation.rowsOut(result.saved());
+                return result.toResponse(meta);
+            }
+
+            if (getBooleanValue(payload, "bulk", bulkProperties.isEnabled())) {
+                RelationBatch relations = entityMapper.newRelationBatch();
+                List<Object> entities = new ArrayList<>(dataList.size());
+                for (Object item : dataList) {
+                    entities.add(entityMapper.mapToEntity((Map<String, Object>) item, meta, relations));
+                }
+                entityMapper.resolveRelations(relations);
+                List<Object> saved = bulkWriter.saveAll(meta, (JpaRepository<Object, Object>) repo, entities).entities();
+                observation.rowsOut(saved.size());
+                return saved;
+            }
+
+            RelationBatch relations = entityMapper.newRelationBatch();
+            List<Object> entities = new ArrayList<>(dataList.size());
             for (Object item : dataList) {
-                Map<String, Object> map = (Map<String, Object>) item;
-                Object entity = mapToEntity(map, entityClass);
-                saved.add(saveOrUpdateEntity(repo, entity, entityClass));
+                entities.add(entityMapper.mapToEntity((Map<String, Object>) item, meta, relations));
             }
+            entityMapper.resolveRelations(relations);
+
+            List<Object> saved = new ArrayList<>(entities.size());
+            for (Object entity : entities) {
+                saved.add(saveOrUpdateEntity(repo, entity, meta));
+            }
+            observation.rowsOut(saved.size());
             return saved;
         } else if (data instanceof Map) {
-            Object entity = mapToEntity((Map<String, Object>) data, entityClass);
-            return saveOrUpdateEntity(repo, entity, entityClass);
+            observation.rowsIn(1);
+            // Write-behind: joins the entity's next group commit instead of its own transaction
+            if (getBooleanValue(payload, "coalesce", writeCoalescer.isEnabled())) {
+                Object saved = writeCoalescer.save(meta, (JpaRepository<Object, Object>) repo,
+                        (Map<String, Object>) data);
+                observation.rowsOut(1);
+                return saved;
+            }
+            Object entity = entityMapper.mapToEntity((Map<String, Object>) data, meta);
+            Object saved = saveOrUpdateEntity(repo, entity, meta);
+            observation.rowsOut(1);
+            return saved;
         } else {
             throw new IllegalArgumentException("Invalid data format. Expected an object or list of objects.");
         }
@@ -82,82 +183,132 @@ public class GenericCrudServiceImpl implements GenericCrudService {
 
     // 🔹 Handles create vs update logic safely
     @SuppressWarnings("unchecked")
-    private Object saveOrUpdateEntity(JpaRepository<?, ?> repo, Object entity, Class<?> entityClass) {
+    private Object saveOrUpdateEntity(JpaRepository<?, ?> repo, Object entity, EntityMetadata meta) {
         try {
-            Field idField = getIdField(entityClass);
-            idField.setAccessible(true);
-            Object idValue = idField.get(entity);
+            Object idValue = meta.getId(entity);
 
             JpaRepository<Object, Object> genericRepo = (JpaRepository<Object, Object>) repo;
 
             if (idValue != null) {
-                Object convertedId = convertIdType(idValue, entityClass);
-                Optional<Object> existing = genericRepo.findById(convertedId);
+                Optional<Object> existing = genericRepo.findById(idValue);
                 if (existing.isPresent()) {
                     Object existingEntity = existing.get();
-                    copyNonNullProperties(entity, existingEntity);
-                    return genericRepo.save(existingEntity);
+                    meta.copyNonNullProperties(entity, existingEntity);
+                    Object saved = genericRepo.save(existingEntity);
+                    cacheManager.evict(meta.getEntityClass(), List.of(idValue));
+                    events.publishEvent(EntityChangedEvent.updated(meta.getEntityClass(), List.of(idValue)));
+                    return saved;
                 }
             }
 
-            return genericRepo.save(entity);
+            Object saved = genericRepo.save(entity);
+            events.publishEvent(EntityChangedEvent.created(meta.getEntityClass(), List.of(meta.getId(saved))));
+            return saved;
         } catch (Exception e) {
             throw new RuntimeException("Error saving or updating entity: " + e.getMessage(), e);
         }
     }
 
-    // 🔹 Merge only non-null fields during update
-    private void copyNonNullProperties(Object src, Object target) throws IllegalAccessException {
-        for (Field field : src.getClass().getDeclaredFields()) {
-            field.setAccessible(true);
-            Object value = field.get(src);
-            if (value != null) {
-                field.set(target, value);
-            }
+    // 🔹 Partial update: one UPDATE with only the supplied columns, no load-then-save
+    @Override
+    public Object patch(Map<String, Object> payload) {
+        try {
+            return metrics.observe("patch", observation -> patch(payload, observation));
+        } finally {
+            routing.pinCurrentCaller();
         }
     }
 
-    // 🔹 Find by ID (auto-detects ID type)
     @SuppressWarnings("unchecked")
+    private Object patch(Map<String, Object> payload, CrudMetrics.Observation observation) {
+        var entityContext = resolveEntityContext(payload);
+        observation.entity(entityContext.entityClass(), entityContext.guessed());
+        if (!(entityContext.data() instanceof Map<?, ?> data)) {
+            throw new IllegalArgumentException("Invalid data format. Expected an object.");
+        }
+
+        EntityMetadata meta = registry.getMetadata(entityContext.entityClass());
+        Map<String, Object> values = new LinkedHashMap<>((Map<String, Object>) data);
+        if (data == payload) {
+            values.remove("entity");
+            values.remove("id");
+        }
+
+        // The id may sit next to "data" or inside it; the version field is the expected version
+        Object id = payload.get("id") != null ? payload.get("id") : values.get(meta.getIdField().getName());
+        if (id == null) {
+            throw new IllegalArgumentException("Missing 'id' for patch operation");
+        }
+        FieldAccessor versionField = meta.getVersionField();
+        Object expectedVersion = versionField != null ? values.get(versionField.getName()) : null;
+
+        observation.rowsIn(1);
+        EntityPatcher.PatchResult result = patcher.patch(meta, meta.convertId(id), values, expectedVersion);
+        observation.rowsOut(result.status() == EntityPatcher.PatchStatus.SUCCESS ? 1 : 0);
+        return result.toResponse();
+    }
+
+    // 🔹 Find by ID (auto-detects ID type)
     @Override
     public Object findById(Map<String, Object> payload) {
+        // Reads go to the replica when routing is enabled
+        try (ReplicaRouting.Scope scope = routing.read()) {
+            return metrics.observe("read", observation -> findById(payload, observation));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object findById(Map<String, Object> payload, CrudMetrics.Observation observation) {
         var entityContext = resolveEntityContext(payload);
+        observation.entity(entityContext.entityClass(), entityContext.guessed());
         Object id = payload.get("id");
         if (id == null) {
             throw new IllegalArgumentException("Missing 'id' for find operation");
         }
 
         JpaRepository<Object, Object> repo = (JpaRepository<Object, Object>) entityContext.repo();
-        Object idValue = convertIdType(id, entityContext.entityClass());
+        Object idValue = entityMapper.convertIdType(id, entityContext.entityClass());
+
+        // Sparse fieldset: select just those columns, bypassing the entity cache
+        EntityMetadata meta = registry.getMetadata(entityContext.entityClass());
+        List<FieldAccessor> projection = queries.projection(meta, payload.get("fields"));
+        if (projection != null) {
+            Map<String, Object> row = queries.projectById(meta, projection, idValue);
+            if (row == null) {
+                throw new IllegalArgumentException("Record not found for ID: " + id);
+            }
+            observation.rowsOut(1);
+            return row;
+        }
 
-        return repo.findById(idValue)
-                .orElseThrow(() -> new IllegalArgumentException("Record not found for ID: " + id));
+        // A replica row that may predate a recent write must not be cached as current
+        Object entity = routing.mayBeStale(entityContext.entityClass())
+                ? repo.findById(idValue).orElse(null)
+                : cacheManager.findById(entityContext.entityClass(), idValue, key -> repo.findById(key).orElse(null));
+        if (entity == null) {
+            throw new IllegalArgumentException("Record not found for ID: " + id);
+        }
+        observation.rowsOut(1);
+        return entity;
     }
 
-    // 🔹 Convert ID to the entity's declared ID type
-    private Object convertIdType(Object id, Class<?> entityClass) {
-        try {
-            Field idField = getIdField(entityClass);
-            Class<?> idType = idField.getType();
-
-            if (idType.equals(Long.class) || idType.equals(long.class)) {
-                return Long.valueOf(id.toString());
-            } else if (idType.equals(Integer.class) || idType.equals(int.class)) {
-                return Integer.valueOf(id.toString());
-            } else if (idType.equals(String.class)) {
-                return id.toString();
-            } else {
-                throw new IllegalArgumentException("Unsupported ID type: " + idType.getSimpleName());
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to determine ID type: " + e.getMessage(), e);
-        }
+    // 🔹 Hit/miss/eviction counters of the findById caches
+    @Override
+    public Object cacheStats() {
+        return cacheManager.stats();
     }
 
     // 🔹 Find all with pagination support
     @Override
     public Object findAll(Map<String, Object> payload) {
+        try (ReplicaRouting.Scope scope = routing.read()) {
+            return metrics.observe("find_all", observation -> findAll(payload, observation));
+        }
+    }
+
+    private Object findAll(Map<String, Object> payload, CrudMetrics.Observation observation) {
         var entityContext = resolveEntityContext(payload);
+        observation.entity(entityContext.entityClass(), entityContext.guessed());
         JpaRepository<?, ?> repo = entityContext.repo();
 
         // Extract pagination parameters
@@ -165,6 +316,10 @@ public class GenericCrudServiceImpl implements GenericCrudService {
         Integer size = getIntegerValue(payload, "size", 10);
         String sortBy = (String) payload.get("sortBy");
         String sortOrder = (String) payload.get("sortOrder");
+        EntityMetadata meta = registry.getMetadata(entityContext.entityClass());
+        List<FieldAccessor> projection = queries.projection(meta, payload.get("fields"));
+        // Compiled (and type-checked) up front so a bad filter never reaches the database
+        Specification<Object> filter = EntityFilters.compile(meta, payload.get("filter"));
 
         // Validate page and size
         if (page < 0) {
@@ -174,6 +329,15 @@ public class GenericCrudServiceImpl implements GenericCrudService {
             throw new IllegalArgumentException("Page size must be greater than 0");
         }
 
+        // Cursor mode: seek past the last row instead of scanning an OFFSET
+        if ("cursor".equalsIgnoreCase((String) payload.get("mode")) || payload.containsKey("cursor")) {
+            Map<String, Object> keysetPage = queries.keysetPage(meta, projection, filter, sortBy,
+                    "desc".equalsIgnoreCase(sortOrder), (String) payload.get("cursor"), size,
+                    EntityQueries.CountMode.from(payload.get("count")));
+            observation.rowsOut(((List<?>) keysetPage.get("data")).size());
+            return keysetPage;
+        }
+
         // Create Pageable object
         Pageable pageable;
         if (sortBy != null && !sortBy.isEmpty()) {
@@ -187,7 +351,16 @@ public class GenericCrudServiceImpl implements GenericCrudService {
         }
 
         // Fetch paginated data
-        Page<?> pageData = repo.findAll(pageable);
+        // With "fields" only those columns are selected, straight into maps
+        Page<?> pageData;
+        if (projection != null) {
+            pageData = queries.projectedPage(meta, projection, filter, pageable);
+        } else if (filter != null) {
+            pageData = specificationExecutor(repo).findAll(filter, pageable);
+        } else {
+            pageData = repo.findAll(pageable);
+        }
+        observation.rowsOut(pageData.getNumberOfElements());
 
         // Build response
         return Map.of(
@@ -203,6 +376,14 @@ public class GenericCrudServiceImpl implements GenericCrudService {
                 "data", pageData.getContent());
     }
 
+    @SuppressWarnings("unchecked")
+    private JpaSpecificationExecutor<Object> specificationExecutor(JpaRepository<?, ?> repo) {
+        if (!(repo instanceof JpaSpecificationExecutor<?> executor)) {
+            throw new IllegalArgumentException("Filtering is not supported for this entity");
+        }
+        return (JpaSpecificationExecutor<Object>) executor;
+    }
+
     // 🔹 Helper method to safely extract integer values from payload
     private Integer getIntegerValue(Map<String, Object> payload, String key, Integer defaultValue) {
         Object value = payload.get(key);
@@ -222,11 +403,32 @@ public class GenericCrudServiceImpl implements GenericCrudService {
         }
     }
 
+    // 🔹 Helper method to safely extract boolean flags from payload
+    private boolean getBooleanValue(Map<String, Object> payload, String key, boolean defaultValue) {
+        Object value = payload.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return Boolean.parseBoolean(value.toString());
+    }
+
     // 🔹 Delete (supports single + batch)
-    @SuppressWarnings("unchecked")
     @Override
     public Object delete(Map<String, Object> payload) {
+        try {
+            return metrics.observe("delete", observation -> delete(payload, observation));
+        } finally {
+            routing.pinCurrentCaller();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object delete(Map<String, Object> payload, CrudMetrics.Observation observation) {
         var entityContext = resolveEntityContext(payload);
+        observation.entity(entityContext.entityClass(), entityContext.guessed());
         JpaRepository<Object, Object> repo = (JpaRepository<Object, Object>) entityContext.repo();
 
         if (payload.containsKey("ids")) {
@@ -235,14 +437,29 @@ public class GenericCrudServiceImpl implements GenericCrudService {
                 throw new IllegalArgumentException("The 'ids' list cannot be empty for delete operation");
             }
 
-            List<Object> deletedIds = new ArrayList<>();
+            observation.rowsIn(ids.size()).batchSize(ids.size());
+            List<Object> idValues = new ArrayList<>(ids.size());
             for (Object idObj : ids) {
-                Object idValue = convertIdType(idObj, entityContext.entityClass());
+                idValues.add(entityMapper.convertIdType(idObj, entityContext.entityClass()));
+            }
+
+            // Bulk mode: chunked set-based delete in one transaction, reporting which ids existed
+            if (getBooleanValue(payload, "bulk", bulkProperties.isEnabled())) {
+                BulkEntityWriter.BulkDeleteResult result = bulkWriter.deleteAll(
+                        registry.getMetadata(entityContext.entityClass()), repo, idValues);
+                observation.rowsOut(result.deleted().size());
+                return Map.of("deleted", true, "count", result.deleted().size(), "ids", result.deleted(),
+                        "notFound", result.notFound());
+            }
+
+            for (Object idValue : idValues) {
                 repo.deleteById(idValue);
-                deletedIds.add(idValue);
             }
+            cacheManager.evict(entityContext.entityClass(), idValues);
+            events.publishEvent(EntityChangedEvent.deleted(entityContext.entityClass(), idValues));
+            observation.rowsOut(idValues.size());
 
-            return Map.of("deleted", true, "count", deletedIds.size(), "ids", deletedIds);
+            return Map.of("deleted", true, "count", idValues.size(), "ids", idValues);
         }
 
         Object id = payload.get("id");
@@ -250,12 +467,43 @@ public class GenericCrudServiceImpl implements GenericCrudService {
             throw new IllegalArgumentException("Missing 'id' or 'ids' for delete operation");
         }
 
-        Object idValue = convertIdType(id, entityContext.entityClass());
+        observation.rowsIn(1);
+        Object idValue = entityMapper.convertIdType(id, entityContext.entityClass());
         repo.deleteById(idValue);
+        cacheManager.evict(entityContext.entityClass(), List.of(idValue));
+        events.publishEvent(EntityChangedEvent.deleted(entityContext.entityClass(), List.of(idValue)));
+        observation.rowsOut(1);
 
         return Map.of("deleted", true, "id", idValue);
     }
 
+    // 🔹 ETag from the in-memory change counters; no database access
+    @Override
+    public String etag(String operation, Map<String, Object> payload) {
+        if (!versionTracker.isEnabled()) {
+            return null;
+        }
+        try {
+            var entityContext = resolveEntityContext(payload);
+            // The tag would describe writes the lagging replica may not serve yet
+            if (routing.mayBeStale(entityContext.entityClass())) {
+                return null;
+            }
+            return switch (operation) {
+                case "read" -> payload.get("id") == null ? null
+                        : versionTracker.rowTag(entityContext.entityClass(),
+                                entityMapper.convertIdType(payload.get("id"), entityContext.entityClass()),
+                                payload.get("fields"));
+                // Page, sort, filter and projection all shape the response
+                case "find_all" -> versionTracker.entityTag(entityContext.entityClass(), payload);
+                default -> throw new IllegalArgumentException("No ETag for operation '" + operation + "'");
+            };
+        } catch (RuntimeException e) {
+            // The operation itself reports what is wrong with the request
+            return null;
+        }
+    }
+
     // --- Helper to resolve entity dynamically
     private EntityContext resolveEntityContext(Map<String, Object> payload) {
         String entityName = (String) payload.get("entity");
@@ -278,139 +526,11 @@ public class GenericCrudServiceImpl implements GenericCrudService {
             throw new IllegalArgumentException("Unknown or unregistered entity type");
         }
 
-        return new EntityContext(entityClass, repo, data != null ? data : payload);
+        return new EntityContext(entityClass, repo, data != null ? data : payload, entityName == null);
     }
 
     @SuppressWarnings("rawtypes")
-    private record EntityContext(Class<?> entityClass, JpaRepository repo, Object data) {
-    }
-
-    // 🔹 Handles mapping of simple + related entities (auto structured/raw
-    // detection)
-    @SuppressWarnings("unchecked")
-    private Object mapToEntity(Map<String, Object> map, Class<?> entityClass) {
-        try {
-            Object entity = entityClass.getDeclaredConstructor().newInstance();
-
-            for (Map.Entry<String, Object> entry : map.entrySet()) {
-                String fieldName = entry.getKey();
-                Object value = entry.getValue();
-
-                Field field;
-                try {
-                    field = entityClass.getDeclaredField(fieldName);
-                } catch (NoSuchFieldException e) {
-                    continue;
-                }
-
-                field.setAccessible(true);
-                Class<?> fieldType = field.getType();
-
-                if (isSimpleType(fieldType)) {
-                    Object convertedValue = convertToFieldType(value, fieldType);
-                    field.set(entity, convertedValue);
-                } else if (value instanceof Map<?, ?> nestedMap) {
-                    field.set(entity, mapToEntity((Map<String, Object>) nestedMap, fieldType));
-                } else if (value instanceof Number || value instanceof String) {
-                    JpaRepository<?, ?> relatedRepo = registry.getRepositoryByEntity(fieldType);
-                    if (relatedRepo != null) {
-                        JpaRepository<Object, Object> genericRepo = (JpaRepository<Object, Object>) relatedRepo;
-                        Object idValue = convertIdType(value, fieldType);
-                        Object relatedEntity = genericRepo.findById(idValue)
-                                .orElseThrow(() -> new IllegalArgumentException(
-                                        "Related entity not found for " + fieldName + " with ID " + value));
-                        field.set(entity, relatedEntity);
-                    }
-                } else if (value instanceof List<?> listVal) {
-                    List<Object> relatedList = new ArrayList<>();
-                    Class<?> genericType = getGenericType(field);
-                    for (Object item : listVal) {
-                        if (item instanceof Map<?, ?> m) {
-                            relatedList.add(mapToEntity((Map<String, Object>) m, genericType));
-                        } else {
-                            JpaRepository<?, ?> relatedRepo = registry.getRepositoryByEntity(genericType);
-                            if (relatedRepo != null) {
-                                JpaRepository<Object, Object> genericRepo = (JpaRepository<Object, Object>) relatedRepo;
-                                Object idValue = convertIdType(item, genericType);
-                                Object relatedEntity = genericRepo.findById(idValue)
-                                        .orElseThrow(() -> new IllegalArgumentException(
-                                                "Related entity not found for " + fieldName + " ID " + item));
-                                relatedList.add(relatedEntity);
-                            }
-                        }
-                    }
-                    field.set(entity, relatedList);
-                }
-            }
-
-            return entity;
-        } catch (Exception e) {
-            throw new RuntimeException("Error mapping payload to entity: " + e.getMessage(), e);
-        }
-    }
-
-    // 🔹 Converts value to match field type
-    private Object convertToFieldType(Object value, Class<?> targetType) {
-        if (value == null) {
-            return null;
-        }
-
-        if (targetType.isInstance(value)) {
-            return value;
-        }
-
-        String strValue = value.toString();
-
-        try {
-            if (targetType == Long.class || targetType == long.class) {
-                return Long.valueOf(strValue);
-            } else if (targetType == Integer.class || targetType == int.class) {
-                return Integer.valueOf(strValue);
-            } else if (targetType == Double.class || targetType == double.class) {
-                return Double.valueOf(strValue);
-            } else if (targetType == Float.class || targetType == float.class) {
-                return Float.valueOf(strValue);
-            } else if (targetType == Boolean.class || targetType == boolean.class) {
-                return Boolean.valueOf(strValue);
-            } else if (targetType == Short.class || targetType == short.class) {
-                return Short.valueOf(strValue);
-            } else if (targetType == Byte.class || targetType == byte.class) {
-                return Byte.valueOf(strValue);
-            } else if (targetType == String.class) {
-                return strValue;
-            } else if (targetType == java.time.LocalDate.class) {
-                return java.time.LocalDate.parse(strValue);
-            } else if (targetType == java.time.LocalDateTime.class) {
-                return java.time.LocalDateTime.parse(strValue);
-            }
-
-            return value;
-        } catch (NumberFormatException | java.time.format.DateTimeParseException e) {
-            throw new IllegalArgumentException(
-                    "Cannot convert value '" + value + "' to type " + targetType.getSimpleName(), e);
-        }
-    }
-
-    private Field getIdField(Class<?> entityClass) {
-        return Arrays.stream(entityClass.getDeclaredFields())
-                .filter(f -> f.getName().equalsIgnoreCase("id"))
-                .findFirst()
-                .orElseThrow(
-                        () -> new IllegalArgumentException("No 'id' field found in " + entityClass.getSimpleName()));
-    }
-
-    private boolean isSimpleType(Class<?> type) {
-        return type.isPrimitive()
-                || type.equals(String.class)
-                || Number.class.isAssignableFrom(type)
-                || type.equals(Boolean.class)
-                || type.equals(java.time.LocalDate.class)
-                || type.equals(java.time.LocalDateTime.class);
-    }
-
-    private Class<?> getGenericType(Field field) {
-        ParameterizedType type = (ParameterizedType) field.getGenericType();
-        return (Class<?>) type.getActualTypeArguments()[0];
+    private record EntityContext(Class<?> entityClass, JpaRepository repo, Object data, boolean guessed) {
     }
 
     @SuppressWarnings("unchecked")
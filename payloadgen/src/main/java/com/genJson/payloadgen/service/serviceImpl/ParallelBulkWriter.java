@@ -0,0 +1,152 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.genJson.payloadgen.config.BulkProperties;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Parallel variant of the bulk path for large list payloads. The rows are cut
+ * into fixed-size partitions; up to {@code parallelism} workers from a shared,
+ * bounded pool take partitions in turn, map them and hand them to
+ * {@link BulkEntityWriter#saveAll}, so every partition commits (or fails) on
+ * its own transaction and connection.
+ */
+@Component
+public class ParallelBulkWriter {
+
+    private final EntityMapper entityMapper;
+    private final BulkEntityWriter bulkWriter;
+    private final BulkProperties.Parallel properties;
+    private final ThreadPoolExecutor executor;
+
+    public ParallelBulkWriter(EntityMapper entityMapper, BulkEntityWriter bulkWriter, BulkProperties bulkProperties) {
+        this.entityMapper = entityMapper;
+        this.bulkWriter = bulkWriter;
+        this.properties = bulkProperties.getParallel();
+        int threads = Math.max(1, properties.getThreads());
+        // A full queue runs the partition on the submitting request thread, which throttles the caller
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                new CustomizableThreadFactory("payloadgen-bulk-"), new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Writes {@code rows} in partitions. {@code requested} may lower (never raise)
+     * the configured parallelism for {@code entityName}.
+     */
+    public ParallelResult saveAll(String entityName, EntityMetadata meta, JpaRepository<Object, Object> repo,
+            List<Map<String, Object>> rows, Integer requested) {
+        int partitionSize = Math.max(1, properties.getPartitionSize());
+        int partitions = (rows.size() + partitionSize - 1) / partitionSize;
+        int parallelism = Math.min(parallelism(entityName, requested), Math.max(1, partitions));
+
+        Object[] saved = new Object[rows.size()];
+        PartitionOutcome[] outcomes = new PartitionOutcome[partitions];
+        AtomicInteger next = new AtomicInteger();
+
+        Runnable worker = () -> {
+            int partition;
+            while ((partition = next.getAndIncrement()) < partitions) {
+                int from = partition * partitionSize;
+                int to = Math.min(from + partitionSize, rows.size());
+                outcomes[partition] = writePartition(meta, repo, rows.subList(from, to), from, saved);
+            }
+        };
+
+        List<CompletableFuture<Void>> workers = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            workers.add(CompletableFuture.runAsync(worker, executor));
+        }
+        CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+
+        List<Map<String, Object>> failures = new ArrayList<>();
+        long savedCount = 0;
+        for (int i = 0; i < partitions; i++) {
+            PartitionOutcome outcome = outcomes[i];
+            if (outcome.error() == null) {
+                savedCount += outcome.to() - outcome.from();
+            } else {
+                Map<String, Object> failure = new LinkedHashMap<>();
+                failure.put("partition", i);
+                failure.put("fromIndex", outcome.from());
+                failure.put("toIndex", outcome.to());
+                failure.put("error", outcome.error());
+                failures.add(failure);
+            }
+        }
+        return new ParallelResult(Arrays.asList(saved), partitions, parallelism, partitionSize, savedCount, failures);
+    }
+
+    private PartitionOutcome writePartition(EntityMetadata meta, JpaRepository<Object, Object> repo,
+            List<Map<String, Object>> rows, int from, Object[] saved) {
+        int to = from + rows.size();
+        try {
+            RelationBatch relations = entityMapper.newRelationBatch();
+            List<Object> entities = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                entities.add(entityMapper.mapToEntity(row, meta, relations));
+            }
+            entityMapper.resolveRelations(relations);
+
+            List<Object> written = bulkWriter.saveAll(meta, repo, entities).entities();
+            for (int i = 0; i < written.size(); i++) {
+                saved[from + i] = written.get(i);
+            }
+            return new PartitionOutcome(from, to, null);
+        } catch (RuntimeException e) {
+            return new PartitionOutcome(from, to, e.getMessage());
+        }
+    }
+
+    private int parallelism(String entityName, Integer requested) {
+        Integer configured = entityName != null ? properties.getEntities().get(entityName.toLowerCase()) : null;
+        int limit = Math.max(1, configured != null ? configured : properties.getParallelism());
+        return requested != null && requested > 0 ? Math.min(requested, limit) : limit;
+    }
+
+    private record PartitionOutcome(int from, int to, String error) {
+    }
+
+    /**
+     * {@code entities} is aligned with the input rows; rows of failed partitions are {@code null}.
+     */
+    public record ParallelResult(List<Object> entities, int partitions, int parallelism, int partitionSize,
+            long saved, List<Map<String, Object>> failures) {
+
+        public Map<String, Object> toResponse(EntityMetadata meta) {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("status", failures.isEmpty() ? "success" : saved == 0 ? "failed" : "partial");
+            response.put("entity", meta.getEntityClass().getSimpleName());
+            response.put("received", entities.size());
+            response.put("saved", saved);
+            response.put("partitions", partitions);
+            response.put("partitionSize", partitionSize);
+            response.put("parallelism", parallelism);
+            response.put("failures", failures);
+            response.put("data", entities);
+            return response;
+        }
+    }
+}
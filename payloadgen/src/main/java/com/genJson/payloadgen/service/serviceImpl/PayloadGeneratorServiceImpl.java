@@ -0,0 +1,237 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genJson.payloadgen.config.BulkProperties;
+import com.genJson.payloadgen.config.GeneratorProperties;
+import com.genJson.payloadgen.service.BulkTransferService;
+import com.genJson.payloadgen.service.EntityRegistry;
+import com.genJson.payloadgen.service.PayloadGeneratorService;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+import com.genJson.payloadgen.service.metadata.FieldAccessor;
+import com.genJson.payloadgen.service.routing.ReplicaRouting;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+@Service
+public class PayloadGeneratorServiceImpl implements PayloadGeneratorService {
+
+    private final EntityRegistry registry;
+    private final ObjectMapper mapper;
+    private final BulkEntityWriter bulkWriter;
+    private final BulkProperties bulkProperties;
+    private final GeneratorProperties properties;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReplicaRouting routing;
+
+    public PayloadGeneratorServiceImpl(EntityRegistry registry, ObjectMapper mapper, BulkEntityWriter bulkWriter,
+            BulkProperties bulkProperties, GeneratorProperties properties, EntityManager entityManager,
+            PlatformTransactionManager transactionManager, ReplicaRouting routing) {
+        this.registry = registry;
+        this.mapper = mapper;
+        this.bulkWriter = bulkWriter;
+        this.bulkProperties = bulkProperties;
+        this.properties = properties;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.routing = routing;
+    }
+
+    // 🔹 NDJSON stream of generated records; nothing is buffered beyond the generator
+    @Override
+    public BulkTransferService.ExportStream stream(String entityName, long count, long seed, long offset) {
+        EntityMetadata meta = metadata(entityName);
+        validateRange(count, offset);
+        RecordGenerator generator = new RecordGenerator(meta, seed, relationIds(meta), properties.getEmailDomain());
+
+        return new BulkTransferService.ExportStream() {
+            @Override
+            public String contentType() {
+                return "application/x-ndjson";
+            }
+
+            @Override
+            public void writeTo(OutputStream out) throws IOException {
+                JsonGenerator json = mapper.getFactory().createGenerator(out);
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.setRootValueSeparator(null);
+                for (long i = 0; i < count; i++) {
+                    generator.write(json, offset + i);
+                    json.writeRaw('\n');
+                }
+                json.flush();
+            }
+        };
+    }
+
+    // 🔹 Generate straight into the database: one transaction per chunk through the
+    // bulk writer, persistence context cleared between chunks
+    @Override
+    public Object populate(String entityName, long count, long seed, long offset, Integer chunkSize) {
+        validateRange(count, offset);
+        int limit = chunkSize != null && chunkSize > 0 ? chunkSize : bulkProperties.getIngestChunkSize();
+
+        List<EntityMetadata> targets = entityName != null ? List.of(metadata(entityName)) : dependencyOrder();
+        List<Map<String, Object>> results = new ArrayList<>();
+        try {
+            for (EntityMetadata meta : targets) {
+                Map<String, Object> result = populate(meta, count, seed, offset, limit);
+                results.add(result);
+                if (!"success".equals(result.get("status"))) {
+                    break;
+                }
+            }
+        } finally {
+            routing.pinCurrentCaller();
+        }
+
+        if (entityName != null) {
+            return results.get(0);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", results.stream().allMatch(r -> "success".equals(r.get("status"))) ? "success"
+                : "aborted");
+        response.put("entities", results);
+        return response;
+    }
+
+    private Map<String, Object> populate(EntityMetadata meta, long count, long seed, long offset, int limit) {
+        JpaRepository<Object, Object> repo = repository(meta);
+        RecordGenerator generator = new RecordGenerator(meta, seed, relationIds(meta), properties.getEmailDomain());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entity", meta.getEntityClass().getSimpleName());
+        result.put("seed", seed);
+        result.put("offset", offset);
+        result.put("requested", count);
+
+        long started = System.nanoTime();
+        long inserted = 0;
+        long chunks = 0;
+        String error = null;
+        for (long from = 0; from < count; from += limit) {
+            long first = offset + from;
+            int size = (int) Math.min(limit, count - from);
+            try {
+                inserted += transactionTemplate.execute(status -> {
+                    List<Object> chunk = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        // Sampled ids exist, so a reference proxy is enough for the foreign key
+                        chunk.add(generator.newEntity(first + i, entityManager::getReference));
+                    }
+                    return bulkWriter.upsert(meta, repo, chunk).entities().size();
+                });
+                chunks++;
+            } catch (RuntimeException e) {
+                error = e.getMessage();
+                break;
+            } finally {
+                entityManager.clear();
+            }
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        result.put("status", error == null ? "success" : "aborted");
+        result.put("inserted", inserted);
+        result.put("chunks", chunks);
+        result.put("elapsedMs", elapsedMillis);
+        result.put("rowsPerSecond", inserted * 1000 / elapsedMillis);
+        if (error != null) {
+            result.put("error", error);
+        }
+        return result;
+    }
+
+    private void validateRange(long count, long offset) {
+        if (count <= 0 || count > properties.getMaxCount()) {
+            throw new IllegalArgumentException("count must be between 1 and " + properties.getMaxCount());
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+    }
+
+    // Registered entities with related types ahead of the entities pointing at them
+    private List<EntityMetadata> dependencyOrder() {
+        Set<EntityMetadata> ordered = new LinkedHashSet<>();
+        for (String name : registry.getRegisteredEntities()) {
+            visit(registry.getMetadata(name), ordered, new LinkedHashSet<>());
+        }
+        return new ArrayList<>(ordered);
+    }
+
+    private void visit(EntityMetadata meta, Set<EntityMetadata> ordered, Set<EntityMetadata> path) {
+        if (ordered.contains(meta) || !path.add(meta)) {
+            return;
+        }
+        for (FieldAccessor field : meta.getFields()) {
+            if (!field.isSimple() && !field.isCollection() && field.getType() != meta.getEntityClass()
+                    && registry.getRepositoryByEntity(field.getType()) != null) {
+                visit(registry.getMetadata(field.getType()), ordered, path);
+            }
+        }
+        ordered.add(meta);
+    }
+
+    // A bounded, id-ordered sample of existing rows for every related entity type
+    private Map<Class<?>, List<Object>> relationIds(EntityMetadata meta) {
+        Map<Class<?>, List<Object>> ids = new HashMap<>();
+        for (FieldAccessor field : meta.getFields()) {
+            Class<?> type = field.getType();
+            if (field.isSimple() || field.isCollection() || ids.containsKey(type)
+                    || registry.getRepositoryByEntity(type) == null) {
+                continue;
+            }
+            EntityMetadata related = registry.getMetadata(type);
+            ids.put(type, readOnlyTransaction.execute(status -> sampleIds(related)));
+        }
+        return ids;
+    }
+
+    private List<Object> sampleIds(EntityMetadata meta) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = cb.createQuery(Object.class);
+        Root<?> root = query.from(meta.getEntityClass());
+        query.select(root.get(meta.getIdField().getName())).orderBy(cb.asc(root.get(meta.getIdField().getName())));
+        return entityManager.createQuery(query).setMaxResults(properties.getRelationSampleSize()).getResultList();
+    }
+
+    private EntityMetadata metadata(String entityName) {
+        EntityMetadata meta = registry.getMetadata(entityName);
+        if (meta == null) {
+            throw new IllegalArgumentException("Unknown or unregistered entity type");
+        }
+        return meta;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JpaRepository<Object, Object> repository(EntityMetadata meta) {
+        JpaRepository<?, ?> repo = registry.getRepositoryByEntity(meta.getEntityClass());
+        if (repo == null) {
+            throw new IllegalArgumentException("Unknown or unregistered entity type");
+        }
+        return (JpaRepository<Object, Object>) repo;
+    }
+}
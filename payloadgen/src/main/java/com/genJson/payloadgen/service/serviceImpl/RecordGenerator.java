@@ -0,0 +1,228 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.BiFunction;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+import com.genJson.payloadgen.service.metadata.FieldAccessor;
+
+import jakarta.persistence.GeneratedValue;
+
+/**
+ * Seed-reproducible record source for one entity. The value plan is derived
+ * once from the entity's field metadata (type plus a few name hints such as
+ * {@code email}, {@code price} or {@code category}); each record gets its own
+ * {@link SplittableRandom} seeded from (seed, entity, index), so any record
+ * can be produced independently and in any order.
+ */
+final class RecordGenerator {
+
+    private static final String[] FIRST_NAMES = { "Aarav", "Olivia", "Liam", "Emma", "Noah", "Ava", "Mateo", "Sofia",
+            "Yuki", "Amara", "Lucas", "Mia", "Ethan", "Isla", "Omar", "Chloe", "Ravi", "Hana", "Leo", "Zara" };
+    private static final String[] LAST_NAMES = { "Sharma", "Smith", "Garcia", "Muller", "Chen", "Okafor", "Rossi",
+            "Tanaka", "Patel", "Brown", "Silva", "Kowalski", "Nguyen", "Dubois", "Khan", "Jensen" };
+    private static final String[] ADJECTIVES = { "Compact", "Ergonomic", "Wireless", "Rugged", "Smart", "Classic",
+            "Portable", "Premium", "Eco", "Ultra" };
+    private static final String[] NOUNS = { "Keyboard", "Lamp", "Backpack", "Speaker", "Bottle", "Chair", "Monitor",
+            "Jacket", "Blender", "Headphones", "Notebook", "Camera" };
+    private static final String[] CATEGORIES = { "Electronics", "Home", "Outdoors", "Office", "Kitchen", "Fashion",
+            "Sports", "Books" };
+    private static final String[] WORDS = { "alpha", "bravo", "delta", "echo", "gamma", "kilo", "lima", "nova",
+            "orbit", "pixel", "quartz", "sierra", "tango", "vector" };
+    private static final LocalDate EPOCH = LocalDate.of(2015, 1, 1);
+    private static final int DAYS = 11 * 365;
+
+    private final EntityMetadata meta;
+    private final long salt;
+    private final List<Column> columns = new ArrayList<>();
+
+    /**
+     * @param relationIds existing ids per related entity class; relation fields
+     *                    whose type is missing (or has no rows) are left null
+     */
+    RecordGenerator(EntityMetadata meta, long seed, Map<Class<?>, List<Object>> relationIds, String emailDomain) {
+        this.meta = meta;
+        this.salt = mix(seed) ^ mix(meta.getEntityClass().getName().hashCode());
+
+        FieldAccessor idField = meta.hasIdField() ? meta.getIdField() : null;
+        for (FieldAccessor field : meta.getFields()) {
+            if (field == meta.getVersionField()) {
+                continue;
+            }
+            if (field == idField) {
+                if (!isGenerated(meta, field)) {
+                    columns.add(new Column(field, ValueSource.sequence(field.getType()), null));
+                }
+                continue;
+            }
+            if (field.isSimple()) {
+                ValueSource source = ValueSource.forField(field, emailDomain);
+                if (source != null) {
+                    columns.add(new Column(field, source, null));
+                }
+            } else if (!field.isCollection() && relationIds.containsKey(field.getType())) {
+                List<Object> ids = relationIds.get(field.getType());
+                if (!ids.isEmpty()) {
+                    columns.add(new Column(field, (random, index) -> ids.get(random.nextInt(ids.size())),
+                            field.getType()));
+                }
+            }
+            // Collections and embedded types are not generated
+        }
+    }
+
+    /** Writes record {@code index} as one JSON object (relations as plain ids). */
+    void write(JsonGenerator out, long index) throws IOException {
+        SplittableRandom random = random(index);
+        out.writeStartObject();
+        for (Column column : columns) {
+            out.writeFieldName(column.field().getName());
+            out.writeObject(column.source().next(random, index));
+        }
+        out.writeEndObject();
+    }
+
+    /** Builds record {@code index} as a new entity instance. */
+    Object newEntity(long index, BiFunction<Class<?>, Object, Object> reference) {
+        SplittableRandom random = random(index);
+        Object entity = meta.newInstance();
+        for (Column column : columns) {
+            Object value = column.source().next(random, index);
+            if (column.relatedType() != null) {
+                value = reference.apply(column.relatedType(), value);
+            }
+            column.field().set(entity, value);
+        }
+        return entity;
+    }
+
+    private SplittableRandom random(long index) {
+        return new SplittableRandom(mix(salt + index * 0x9E3779B97F4A7C15L));
+    }
+
+    // MurmurHash3 finalizer: spreads nearby indexes over the whole seed space
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static boolean isGenerated(EntityMetadata meta, FieldAccessor field) {
+        for (Class<?> type = meta.getEntityClass(); type != null; type = type.getSuperclass()) {
+            try {
+                return type.getDeclaredField(field.getName()).isAnnotationPresent(GeneratedValue.class);
+            } catch (NoSuchFieldException e) {
+                // declared further up
+            }
+        }
+        return false;
+    }
+
+    record Column(FieldAccessor field, ValueSource source, Class<?> relatedType) {
+    }
+
+    @FunctionalInterface
+    interface ValueSource {
+
+        Object next(SplittableRandom random, long index);
+
+        static ValueSource sequence(Class<?> type) {
+            if (type == Long.class || type == long.class) {
+                return (random, index) -> index + 1;
+            }
+            if (type == Integer.class || type == int.class) {
+                return (random, index) -> Math.toIntExact(index + 1);
+            }
+            return (random, index) -> "id-" + (index + 1);
+        }
+
+        static ValueSource forField(FieldAccessor field, String emailDomain) {
+            String name = field.getName().toLowerCase(Locale.ROOT);
+            Class<?> type = field.getType();
+
+            if (type == String.class) {
+                if (name.contains("email")) {
+                    // The index keeps addresses unique within and across ranges of one seed
+                    return (random, index) -> (pick(random, FIRST_NAMES) + "." + pick(random, LAST_NAMES) + "."
+                            + index + "@" + emailDomain).toLowerCase(Locale.ROOT);
+                }
+                if (name.contains("product") || name.contains("title")) {
+                    return (random, index) -> pick(random, ADJECTIVES) + " " + pick(random, NOUNS);
+                }
+                if (name.contains("category")) {
+                    return (random, index) -> pick(random, CATEGORIES);
+                }
+                if (name.contains("first")) {
+                    return (random, index) -> pick(random, FIRST_NAMES);
+                }
+                if (name.contains("last") || name.contains("surname")) {
+                    return (random, index) -> pick(random, LAST_NAMES);
+                }
+                if (name.contains("user") || name.contains("login")) {
+                    return (random, index) -> (pick(random, FIRST_NAMES) + "_" + index).toLowerCase(Locale.ROOT);
+                }
+                if (name.endsWith("name")) {
+                    return (random, index) -> pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES);
+                }
+                if (name.contains("phone")) {
+                    return (random, index) -> "+1" + (2_000_000_000L + random.nextLong(8_000_000_000L));
+                }
+                return (random, index) -> pick(random, WORDS) + "-" + pick(random, WORDS) + "-" + index;
+            }
+
+            boolean money = name.contains("price") || name.contains("amount") || name.contains("cost");
+            boolean quantity = name.contains("stock") || name.contains("quantity") || name.contains("count");
+            if (type == Double.class || type == double.class) {
+                return money ? (random, index) -> Math.round(random.nextDouble(1, 1000) * 100) / 100.0
+                        : (random, index) -> random.nextDouble(0, 1000);
+            }
+            if (type == Float.class || type == float.class) {
+                return (random, index) -> (float) (Math.round(random.nextDouble(1, 1000) * 100) / 100.0);
+            }
+            if (type == BigDecimal.class) {
+                return (random, index) -> BigDecimal.valueOf(random.nextLong(100, 100_000), 2);
+            }
+            if (type == Integer.class || type == int.class) {
+                return quantity ? (random, index) -> random.nextInt(0, 1000)
+                        : name.contains("age") ? (random, index) -> random.nextInt(18, 90)
+                        : (random, index) -> random.nextInt(0, 100_000);
+            }
+            if (type == Long.class || type == long.class) {
+                return (random, index) -> random.nextLong(0, quantity ? 1000 : 1_000_000_000L);
+            }
+            if (type == Short.class || type == short.class) {
+                return (random, index) -> (short) random.nextInt(0, Short.MAX_VALUE);
+            }
+            if (type == Byte.class || type == byte.class) {
+                return (random, index) -> (byte) random.nextInt(0, Byte.MAX_VALUE);
+            }
+            if (type == BigInteger.class) {
+                return (random, index) -> BigInteger.valueOf(random.nextLong(0, Long.MAX_VALUE));
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return (random, index) -> random.nextBoolean();
+            }
+            if (type == LocalDate.class) {
+                return (random, index) -> EPOCH.plusDays(random.nextInt(DAYS));
+            }
+            if (type == LocalDateTime.class) {
+                return (random, index) -> EPOCH.atStartOfDay().plusSeconds(random.nextLong(DAYS * 86_400L));
+            }
+            return null;
+        }
+
+        private static String pick(SplittableRandom random, String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+
+/**
+ * Request-scoped collector for related-entity references found while mapping
+ * payloads. Ids are gathered per target type and loaded with one
+ * {@code findAllById} per type (or turned into {@code getReferenceById} proxies),
+ * and an identity map guarantees no id is fetched twice within the batch.
+ */
+public final class RelationBatch {
+
+    private final boolean useReferences;
+    private final int chunkSize;
+    private final Map<EntityMetadata, JpaRepository<Object, Object>> repositories = new HashMap<>();
+    private final Map<EntityMetadata, Map<Object, Object>> loaded = new HashMap<>();
+    private final Map<EntityMetadata, List<Pending>> pending = new LinkedHashMap<>();
+    private Object owner;
+
+    RelationBatch(boolean useReferences, int chunkSize) {
+        this.useReferences = useReferences;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Registers a reference to {@code id} (already converted to the target's id
+     * type); {@code sink} receives the entity when the batch is resolved, or
+     * immediately if it was loaded before.
+     */
+    void defer(EntityMetadata targetType, JpaRepository<Object, Object> repository, Object id, String fieldName,
+            Consumer<Object> sink) {
+        repositories.putIfAbsent(targetType, repository);
+        Object known = loaded.getOrDefault(targetType, Map.of()).get(id);
+        if (known != null) {
+            sink.accept(known);
+            return;
+        }
+        pending.computeIfAbsent(targetType, type -> new ArrayList<>()).add(new Pending(owner, id, fieldName, sink));
+    }
+
+    /**
+     * Attributes the references registered from now on to {@code owner} (a row
+     * index or input line), so {@link #resolveEach()} can report them per row.
+     */
+    public void owner(Object owner) {
+        this.owner = owner;
+    }
+
+    boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * Loads every outstanding id and hands the entities to their sinks.
+     *
+     * @throws IllegalArgumentException for the first reference whose target does not exist
+     */
+    void resolve() {
+        Map<Object, RuntimeException> failures = resolveEach();
+        if (!failures.isEmpty()) {
+            throw failures.values().iterator().next();
+        }
+    }
+
+    /**
+     * Like {@link #resolve()}, but a missing target only fails the owner that
+     * referenced it: returns the first not-found error per owner, while every
+     * other reference still receives its entity.
+     */
+    Map<Object, RuntimeException> resolveEach() {
+        Map<Object, RuntimeException> failures = new LinkedHashMap<>();
+        for (Map.Entry<EntityMetadata, List<Pending>> entry : pending.entrySet()) {
+            EntityMetadata targetType = entry.getKey();
+            JpaRepository<Object, Object> repository = repositories.get(targetType);
+            Map<Object, Object> identityMap = loaded.computeIfAbsent(targetType, type -> new HashMap<>());
+
+            Set<Object> missing = new LinkedHashSet<>();
+            for (Pending reference : entry.getValue()) {
+                if (!identityMap.containsKey(reference.id())) {
+                    missing.add(reference.id());
+                }
+            }
+            load(targetType, repository, missing, identityMap);
+
+            for (Pending reference : entry.getValue()) {
+                Object related = identityMap.get(reference.id());
+                if (related == null) {
+                    failures.putIfAbsent(reference.owner(), new IllegalArgumentException(
+                            "Related entity not found for " + reference.fieldName() + " with ID " + reference.id()));
+                    continue;
+                }
+                reference.sink().accept(related);
+            }
+        }
+        pending.clear();
+        return failures;
+    }
+
+    private void load(EntityMetadata targetType, JpaRepository<Object, Object> repository, Set<Object> ids,
+            Map<Object, Object> identityMap) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (useReferences) {
+            // Only the foreign key is needed; unknown ids surface as a constraint violation on flush
+            for (Object id : ids) {
+                identityMap.put(id, repository.getReferenceById(id));
+            }
+            return;
+        }
+
+        List<Object> idList = new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += chunkSize) {
+            List<Object> chunk = idList.subList(from, Math.min(from + chunkSize, idList.size()));
+            for (Object found : repository.findAllById(chunk)) {
+                identityMap.put(targetType.getId(found), found);
+            }
+        }
+    }
+
+    private record Pending(Object owner, Object id, String fieldName, Consumer<Object> sink) {
+    }
+}
@@ -0,0 +1,191 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import com.genJson.payloadgen.config.BulkProperties;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Group commit for single-object writes. Each entity has a bounded queue and
+ * one flusher thread; the flusher takes the first waiting write, collects more
+ * until {@code maxBatchSize} or {@code maxDelay} is reached and commits them
+ * with one {@link BulkEntityWriter#saveAll} call. Every caller blocks on its own
+ * future and receives its own saved entity or error.
+ * <p>
+ * If a batch fails, its writes are retried one by one (each in its own
+ * transaction) so a single bad row only fails its own caller. A caller that
+ * times out before the flusher picked its write up is told it was not written;
+ * only a write already in a batch being written has an unknown outcome.
+ */
+@Component
+public class WriteCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteCoalescer.class);
+
+    private final EntityMapper entityMapper;
+    private final BulkEntityWriter bulkWriter;
+    private final BulkProperties.Coalesce properties;
+    private final Map<Class<?>, Lane> lanes = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public WriteCoalescer(EntityMapper entityMapper, BulkEntityWriter bulkWriter, BulkProperties bulkProperties) {
+        this.entityMapper = entityMapper;
+        this.bulkWriter = bulkWriter;
+        this.properties = bulkProperties.getCoalesce();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues {@code row} and waits until the batch it joined has committed.
+     * Mapping errors surface immediately on the calling thread.
+     */
+    public Object save(EntityMetadata meta, JpaRepository<Object, Object> repo, Map<String, Object> row) {
+        // Validate the payload before it takes a slot in the queue (relations are looked up by the flusher)
+        entityMapper.mapToEntity(row, meta, entityMapper.newRelationBatch());
+
+        PendingWrite write = new PendingWrite(row, new CompletableFuture<>(), new AtomicBoolean());
+        Lane lane = lanes.computeIfAbsent(meta.getEntityClass(), type -> new Lane(meta, repo));
+        try {
+            if (closed || !lane.queue.offer(write, properties.getOfferTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Write queue for " + meta.getEntityClass().getSimpleName()
+                        + " is full; retry later");
+            }
+            return write.result().get(properties.getResultTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the write to commit", e);
+        } catch (TimeoutException e) {
+            if (lane.queue.remove(write) || write.claim()) {
+                // The flusher skips claimed writes, so this one never reaches the database
+                write.result().cancel(false);
+                throw new IllegalStateException("Timed out waiting for the write to commit; it was not written", e);
+            }
+            throw new IllegalStateException("Timed out waiting for the write to commit; it is part of a batch that"
+                    + " is being written, so it may still commit. Check before retrying", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause
+                    : new RuntimeException("Error saving or updating entity: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        closed = true;
+        for (Lane lane : lanes.values()) {
+            lane.flusher.interrupt();
+        }
+    }
+
+    private final class Lane {
+        private final EntityMetadata meta;
+        private final JpaRepository<Object, Object> repo;
+        private final BlockingQueue<PendingWrite> queue;
+        private final Thread flusher;
+
+        Lane(EntityMetadata meta, JpaRepository<Object, Object> repo) {
+            this.meta = meta;
+            this.repo = repo;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+            this.flusher = Thread.ofPlatform().daemon()
+                    .name("payloadgen-coalesce-" + meta.getEntityClass().getSimpleName().toLowerCase())
+                    .start(this::run);
+        }
+
+        private void run() {
+            int maxBatch = Math.max(1, properties.getMaxBatchSize());
+            long maxDelayNanos = properties.getMaxDelay().toNanos();
+            List<PendingWrite> batch = new ArrayList<>(maxBatch);
+            try {
+                while (!closed) {
+                    batch.add(queue.take());
+                    long deadline = System.nanoTime() + maxDelayNanos;
+                    while (batch.size() < maxBatch) {
+                        // Take whatever is already waiting, then wait out the rest of the delay
+                        if (queue.drainTo(batch, maxBatch - batch.size()) > 0) {
+                            continue;
+                        }
+                        long remaining = deadline - System.nanoTime();
+                        PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    flush(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batch.addAll(queue);
+            for (PendingWrite write : batch) {
+                write.result().completeExceptionally(new IllegalStateException("Write buffer is shutting down"));
+            }
+        }
+
+        private void flush(List<PendingWrite> batch) {
+            // Writes whose caller already gave up were reported as not written
+            batch.removeIf(write -> !write.claim());
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                RelationBatch relations = entityMapper.newRelationBatch();
+                List<Object> entities = new ArrayList<>(batch.size());
+                for (PendingWrite write : batch) {
+                    entities.add(entityMapper.mapToEntity(write.row(), meta, relations));
+                }
+                entityMapper.resolveRelations(relations);
+
+                List<Object> saved = bulkWriter.saveAll(meta, repo, entities).entities();
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).result().complete(saved.get(i));
+                }
+            } catch (RuntimeException e) {
+                log.debug("Coalesced batch of {} {} writes failed, retrying individually: {}", batch.size(),
+                        meta.getEntityClass().getSimpleName(), e.getMessage());
+                for (PendingWrite write : batch) {
+                    retry(write);
+                }
+            }
+        }
+
+        // Mapped again from the payload: the failed attempt may have left ids on the old instances
+        private void retry(PendingWrite write) {
+            try {
+                Object entity = entityMapper.mapToEntity(write.row(), meta);
+                write.result().complete(bulkWriter.saveAll(meta, repo, List.of(entity)).entities().get(0));
+            } catch (RuntimeException e) {
+                write.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    /** {@code claimed} is set once, by the flusher before writing or by a caller that timed out. */
+    private record PendingWrite(Map<String, Object> row, CompletableFuture<Object> result, AtomicBoolean claimed) {
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.genJson.payloadgen.config;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+class RequestDecompressionFilterTests {
+
+	private static final byte[] BODY = "{\"productName\":\"widget\",\"price\":1.5}\n".repeat(500)
+			.getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	void inflatesBlockingReads() throws Exception {
+		// Two concatenated gzip members decode as one body
+		byte[] first = Arrays.copyOfRange(BODY, 0, 1000);
+		byte[] rest = Arrays.copyOfRange(BODY, 1000, BODY.length);
+		ByteArrayOutputStream members = new ByteArrayOutputStream();
+		members.write(gzip(first));
+		members.write(gzip(rest));
+
+		assertArrayEquals(BODY, decode(request("gzip", members.toByteArray()), DataSize.ofMegabytes(1)));
+		assertArrayEquals(BODY, decode(request("deflate", deflate(BODY)), DataSize.ofMegabytes(1)));
+		assertThrows(IOException.class, () -> decode(request("gzip", gzip(BODY)), DataSize.ofBytes(100)));
+	}
+
+	@Test
+	void inflatesAsyncReadsAsCompressedBytesArrive() throws Exception {
+		TrickleInputStream raw = new TrickleInputStream(gzip(BODY));
+		MockHttpServletRequest mock = request("gzip", new byte[0]);
+		HttpServletRequest decoded = filter(new HttpServletRequestWrapper(mock) {
+			@Override
+			public ServletInputStream getInputStream() {
+				return raw;
+			}
+		}, DataSize.ofMegabytes(1));
+
+		ServletInputStream in = decoded.getInputStream();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		boolean[] done = new boolean[1];
+		in.setReadListener(new ReadListener() {
+			@Override
+			public void onDataAvailable() throws IOException {
+				byte[] buffer = new byte[256];
+				while (in.isReady() && !in.isFinished()) {
+					int n = in.read(buffer);
+					if (n > 0) {
+						out.write(buffer, 0, n);
+					}
+				}
+			}
+
+			@Override
+			public void onAllDataRead() {
+				done[0] = true;
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				throw new AssertionError(t);
+			}
+		});
+
+		// The listener only ever reads what has arrived, so it never blocks
+		while (raw.release(7)) {
+			assertFalse(done[0]);
+		}
+		assertTrue(done[0]);
+		assertTrue(in.isFinished());
+		assertArrayEquals(BODY, out.toByteArray());
+		assertNull(decoded.getHeader("Content-Encoding"));
+	}
+
+	private static byte[] decode(HttpServletRequest request, DataSize limit) throws Exception {
+		return filter(request, limit).getInputStream().readAllBytes();
+	}
+
+	private static HttpServletRequest filter(HttpServletRequest request, DataSize limit) throws Exception {
+		CompressionProperties properties = new CompressionProperties();
+		properties.setMaxInflatedSize(limit);
+		MockFilterChain chain = new MockFilterChain();
+		new RequestDecompressionFilter(properties).doFilter(request, new MockHttpServletResponse(), chain);
+		return (HttpServletRequest) chain.getRequest();
+	}
+
+	private static MockHttpServletRequest request(String encoding, byte[] content) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/crud/ingest");
+		request.addHeader("Content-Encoding", encoding);
+		request.setContent(content);
+		return request;
+	}
+
+	private static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(data);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] deflate(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (DeflaterOutputStream deflate = new DeflaterOutputStream(out)) {
+			deflate.write(data);
+		}
+		return out.toByteArray();
+	}
+
+	// Non-blocking raw body that only makes the bytes released so far readable, like a slow client
+	private static final class TrickleInputStream extends ServletInputStream {
+
+		private final byte[] data;
+		private int arrived;
+		private int position;
+		private boolean allDataRead;
+		private ReadListener listener;
+
+		TrickleInputStream(byte[] data) {
+			this.data = data;
+		}
+
+		boolean release(int bytes) throws IOException {
+			if (arrived == data.length) {
+				if (!allDataRead) {
+					allDataRead = true;
+					listener.onAllDataRead();
+				}
+				return false;
+			}
+			arrived = Math.min(data.length, arrived + bytes);
+			listener.onDataAvailable();
+			return true;
+		}
+
+		@Override
+		public int read() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) {
+			if (!isReady()) {
+				throw new IllegalStateException("Read while not ready");
+			}
+			int n = Math.min(length, arrived - position);
+			System.arraycopy(data, position, buffer, offset, n);
+			position += n;
+			return n;
+		}
+
+		@Override
+		public boolean isReady() {
+			return position < arrived;
+		}
+
+		@Override
+		public boolean isFinished() {
+			return position == data.length;
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+			this.listener = readListener;
+		}
+	}
+}
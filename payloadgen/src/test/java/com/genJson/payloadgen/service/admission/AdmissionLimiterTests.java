@@ -0,0 +1,96 @@
+package com.genJson.payloadgen.service.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.genJson.payloadgen.config.AdmissionProperties;
+import com.genJson.payloadgen.service.EntityRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdmissionLimiterTests {
+
+	private final EntityRegistry registry = new EntityRegistry(null, null);
+
+	@Test
+	void bulkIsCappedAtItsShareWhileReadsStillGetThrough() {
+		AdmissionProperties properties = new AdmissionProperties();
+		properties.setInitialLimit(8);
+		AdmissionLimiter limiter = new AdmissionLimiter(registry, properties, new SimpleMeterRegistry());
+
+		List<AdmissionLimiter.Permit> held = new ArrayList<>();
+		held.add(limiter.acquireBulk("product"));
+		held.add(limiter.acquireBulk("product"));
+		assertThrows(AdmissionRejectedException.class, () -> limiter.acquireBulk("product"));
+		// A large page is bulk too
+		assertThrows(AdmissionRejectedException.class,
+				() -> limiter.acquire("find_all", Map.of("entity", "product", "size", 5000)));
+
+		for (int i = 0; i < 6; i++) {
+			held.add(limiter.acquire("read", Map.of("entity", "product", "id", i)));
+		}
+		assertThrows(AdmissionRejectedException.class,
+				() -> limiter.acquire("read", Map.of("entity", "product", "id", 7)));
+		// Other entities have their own limit
+		limiter.acquire("read", Map.of("entity", "user", "id", 1)).close();
+
+		held.forEach(AdmissionLimiter.Permit::close);
+		limiter.acquireBulk("product").close();
+	}
+
+	@Test
+	void slowCallsShrinkTheLimitAndFastBusyOnesGrowIt() {
+		AdmissionProperties properties = new AdmissionProperties();
+		properties.setInitialLimit(10);
+		properties.setReadLatencyTarget(Duration.ZERO);
+		AdmissionLimiter limiter = new AdmissionLimiter(registry, properties, new SimpleMeterRegistry());
+
+		limiter.acquire("read", Map.of("entity", "product", "id", 1)).close();
+		assertEquals(9, limit(limiter));
+
+		properties.setReadLatencyTarget(Duration.ofMinutes(1));
+		List<AdmissionLimiter.Permit> held = new ArrayList<>();
+		for (int i = 0; i < 9; i++) {
+			held.add(limiter.acquire("read", Map.of("entity", "product", "id", i)));
+		}
+		held.forEach(AdmissionLimiter.Permit::close);
+		assertEquals(14, limit(limiter));
+	}
+
+	@Test
+	void longBulkCallsLeaveTheSharedLimitAlone() throws InterruptedException {
+		AdmissionProperties properties = new AdmissionProperties();
+		properties.setInitialLimit(10);
+		properties.setWriteLatencyTarget(Duration.ZERO);
+		AdmissionLimiter limiter = new AdmissionLimiter(registry, properties, new SimpleMeterRegistry());
+
+		AdmissionLimiter.Permit export = limiter.acquireBulk("product");
+		Thread.sleep(2);
+		export.close();
+		// Closed again by the async completion callback: still released once
+		export.close();
+
+		assertEquals(10, limit(limiter));
+		assertEquals(0, inflight(limiter));
+		limiter.acquireBulk("product").close();
+		limiter.acquireBulk("product").close();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static int limit(AdmissionLimiter limiter) {
+		return (Integer) ((Map<String, Object>) limiter.stats().get("Product")).get("limit");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static int inflight(AdmissionLimiter limiter) {
+		return (Integer) ((Map<String, Object>) limiter.stats().get("Product")).get("inflight");
+	}
+
+}
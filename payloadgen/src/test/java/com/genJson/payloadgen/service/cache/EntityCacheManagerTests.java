@@ -0,0 +1,65 @@
+package com.genJson.payloadgen.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.genJson.payloadgen.config.CacheProperties;
+import com.genJson.payloadgen.config.ETagProperties;
+import com.genJson.payloadgen.model.Product;
+import com.genJson.payloadgen.service.EntityRegistry;
+import com.genJson.payloadgen.service.change.EntityChangedEvent;
+import com.genJson.payloadgen.service.change.EntityVersionTracker;
+
+class EntityCacheManagerTests {
+
+	private final EntityRegistry registry = new EntityRegistry(null, null);
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void readDuringAfterCommitNeverPairsTheNewTagWithTheOldRow() {
+		CacheProperties properties = new CacheProperties();
+		properties.setEnabled(true);
+		EntityCacheManager cache = new EntityCacheManager(registry, properties);
+		EntityVersionTracker tracker = new EntityVersionTracker(new ETagProperties(), registry);
+
+		String[] row = { "old" };
+		assertEquals("old", cache.findById(Product.class, 1L, id -> row[0]));
+		String oldTag = tracker.rowTag(Product.class, 1L, null);
+
+		List<String> seen = new ArrayList<>();
+		TransactionSynchronizationManager.initSynchronization();
+		// Registered like a @TransactionalEventListener: before the eviction, default order
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				tracker.onChange(EntityChangedEvent.updated(Product.class, List.of(1L)));
+				// A read racing the commit: the tag first, then the body
+				seen.add(tracker.rowTag(Product.class, 1L, null));
+				seen.add((String) cache.findById(Product.class, 1L, id -> row[0]));
+			}
+		});
+		cache.evict(Product.class, List.of(1L));
+		row[0] = "new";
+
+		TransactionSynchronizationUtils.triggerAfterCommit();
+
+		assertNotEquals(oldTag, seen.get(0));
+		assertEquals("new", seen.get(1));
+	}
+
+}
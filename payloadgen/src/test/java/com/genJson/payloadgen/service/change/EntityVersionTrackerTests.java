@@ -0,0 +1,47 @@
+package com.genJson.payloadgen.service.change;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.genJson.payloadgen.config.ETagProperties;
+import com.genJson.payloadgen.model.Product;
+import com.genJson.payloadgen.service.EntityRegistry;
+
+class EntityVersionTrackerTests {
+
+	private final EntityRegistry registry = new EntityRegistry(null, null);
+
+	@Test
+	void changesOnlyTouchTheirRowsAndTheEntityTag() {
+		EntityVersionTracker tracker = new EntityVersionTracker(new ETagProperties(), registry);
+		String row1 = tracker.rowTag(Product.class, 1L, null);
+		String row2 = tracker.rowTag(Product.class, 2L, null);
+		String list = tracker.entityTag(Product.class, "page=0");
+		assertNotEquals(row1, row2);
+
+		tracker.onChange(EntityChangedEvent.updated(Product.class, List.of(1L)));
+
+		assertNotEquals(row1, tracker.rowTag(Product.class, 1L, null));
+		assertEquals(row2, tracker.rowTag(Product.class, 2L, null));
+		assertNotEquals(list, tracker.entityTag(Product.class, "page=0"));
+	}
+
+	@Test
+	void evictedRowsNeverRevalidateAnOldTag() {
+		ETagProperties properties = new ETagProperties();
+		properties.setMaxTrackedRows(1);
+		EntityVersionTracker tracker = new EntityVersionTracker(properties, registry);
+
+		for (long id = 1; id <= 50; id++) {
+			String before = tracker.rowTag(Product.class, id, null);
+			tracker.onChange(EntityChangedEvent.updated(Product.class, List.of(id)));
+			tracker.onChange(EntityChangedEvent.updated(Product.class, List.of(id + 1000)));
+			assertNotEquals(before, tracker.rowTag(Product.class, id, null));
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.genJson.payloadgen.service.metadata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.genJson.payloadgen.model.Product;
+
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+
+class EntityMetadataTests {
+
+	private final EntityMetadata meta = EntityMetadata.of(Product.class);
+
+	@Test
+	void resolvesIdAndFieldsIgnoringCase() {
+		assertEquals("id", meta.getIdField().getName());
+		assertEquals(Long.class, meta.getIdType());
+		assertSame(meta.field("productName"), meta.field("PRODUCTNAME"));
+		assertNull(meta.field("unknown"));
+		assertNull(meta.getVersionField());
+	}
+
+	@Test
+	void detectsVersionField() {
+		EntityMetadata versioned = EntityMetadata.of(Versioned.class);
+		assertEquals("revision", versioned.getVersionField().getName());
+		assertEquals(5L, versioned.getVersionField().convert(5));
+	}
+
+	@Test
+	void convertsPayloadValuesToFieldTypes() {
+		assertEquals(42L, meta.convertId(42));
+		assertEquals(42L, meta.convertId("42"));
+		assertEquals(3.0, meta.field("price").convert(3));
+		assertEquals(7, meta.field("stock").convert("7"));
+		assertThrows(IllegalArgumentException.class, () -> meta.field("stock").convert(1.5));
+		assertThrows(IllegalArgumentException.class, () -> meta.convertId("abc"));
+	}
+
+	@Test
+	void copiesOnlyNonNullProperties() {
+		Product existing = (Product) meta.newInstance();
+		existing.setProductName("old");
+		existing.setCategory("tools");
+
+		Product update = new Product();
+		update.setProductName("new");
+
+		meta.copyNonNullProperties(update, existing);
+
+		assertEquals("new", existing.getProductName());
+		assertEquals("tools", existing.getCategory());
+	}
+
+	static class Versioned {
+		@Id
+		private Long id;
+		@Version
+		private Long revision;
+	}
+
+}
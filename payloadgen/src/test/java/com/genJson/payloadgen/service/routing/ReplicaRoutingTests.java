@@ -0,0 +1,83 @@
+package com.genJson.payloadgen.service.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.genJson.payloadgen.config.RoutingProperties;
+import com.genJson.payloadgen.model.Product;
+import com.genJson.payloadgen.model.User;
+import com.genJson.payloadgen.service.change.EntityChangedEvent;
+
+class ReplicaRoutingTests {
+
+	@AfterEach
+	void clearRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void everythingStaysOnThePrimaryWhenDisabled() {
+		ReplicaRouting routing = new ReplicaRouting(new RoutingProperties());
+		try (ReplicaRouting.Scope scope = routing.read()) {
+			assertEquals(ReplicaRouting.Target.PRIMARY, routing.current());
+		}
+	}
+
+	@Test
+	void writerIsPinnedToThePrimaryAndOthersReadTheReplica() {
+		ReplicaRouting routing = new ReplicaRouting(enabled());
+		asCaller("writer");
+		assertEquals(ReplicaRouting.Target.REPLICA, routing.readTarget());
+
+		routing.onChange(EntityChangedEvent.updated(Product.class, List.of(1L)));
+		// The commit alone pins nobody: it may run on a flusher or pool thread
+		assertEquals(ReplicaRouting.Target.REPLICA, routing.readTarget());
+		routing.pinCurrentCaller();
+
+		assertEquals(ReplicaRouting.Target.PRIMARY, routing.readTarget());
+		asCaller("reader");
+		assertEquals(ReplicaRouting.Target.REPLICA, routing.readTarget());
+		try (ReplicaRouting.Scope scope = routing.read()) {
+			assertEquals(ReplicaRouting.Target.REPLICA, routing.current());
+			// Only the type just written may be behind on the replica
+			assertTrue(routing.mayBeStale(Product.class));
+			assertFalse(routing.mayBeStale(User.class));
+		}
+		assertEquals(ReplicaRouting.Target.PRIMARY, routing.current());
+	}
+
+	@Test
+	void callerCapturedOnTheRequestIsPinnedFromAnotherThread() throws InterruptedException {
+		ReplicaRouting routing = new ReplicaRouting(enabled());
+		asCaller("job-owner");
+		String caller = routing.currentCaller();
+
+		Thread worker = new Thread(() -> routing.pin(caller));
+		worker.start();
+		worker.join();
+
+		assertEquals(ReplicaRouting.Target.PRIMARY, routing.readTarget());
+	}
+
+	private static RoutingProperties enabled() {
+		RoutingProperties properties = new RoutingProperties();
+		properties.setEnabled(true);
+		return properties;
+	}
+
+	private static void asCaller(String id) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("X-Client-Id", id);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+}
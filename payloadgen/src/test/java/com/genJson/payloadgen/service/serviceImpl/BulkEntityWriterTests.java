@@ -0,0 +1,107 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.genJson.payloadgen.model.Product;
+import com.genJson.payloadgen.repository.ProductRepository;
+import com.genJson.payloadgen.service.EntityRegistry;
+
+@SpringBootTest
+class BulkEntityWriterTests {
+
+	private static final String CATEGORY = "bulk-writer-test";
+
+	@Autowired
+	private BulkEntityWriter writer;
+
+	@Autowired
+	private EntityRegistry registry;
+
+	@Autowired
+	private ProductRepository products;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@AfterEach
+	void cleanUp() {
+		jdbc.update("delete from product where category = ?", CATEGORY);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void upsertsNewExistingAndUnknownIdsInInputOrder() {
+		Product first = products.save(product(null, "existing-1", 1.0));
+		Product second = products.save(product(null, "existing-2", 2.0));
+		long unknownId = jdbc.queryForObject("select coalesce(max(id), 0) from product", Long.class) + 1_000_000;
+
+		// Existing rows, an id nobody has, and enough new rows for several JDBC batches
+		List<Object> input = new ArrayList<>();
+		input.add(product(null, "new-0", 3.0));
+		input.add(product(first.getId(), "existing-1-renamed", null));
+		input.add(product(unknownId, "unknown", 4.0));
+		for (int i = 1; i <= 1200; i++) {
+			input.add(product(null, "new-" + i, (double) i));
+		}
+		input.add(product(second.getId(), null, 20.0));
+
+		BulkEntityWriter.BulkWriteResult result = writer.saveAll(registry.getMetadata("product"),
+				(JpaRepository<Object, Object>) registry.getRepository("product"), input);
+
+		assertEquals(1202, result.inserted());
+		assertEquals(2, result.updated());
+		List<Object> saved = result.entities();
+		assertEquals(input.size(), saved.size());
+
+		Map<Long, Map<String, Object>> rows = new HashMap<>();
+		jdbc.queryForList("select id, product_name, price from product where category = ?", CATEGORY)
+				.forEach(row -> rows.put(((Number) row.get("id")).longValue(), row));
+		assertEquals(input.size(), rows.size());
+
+		long previousNewId = 0;
+		for (int i = 0; i < saved.size(); i++) {
+			Product product = (Product) saved.get(i);
+			Map<String, Object> row = rows.get(product.getId());
+			assertEquals(product.getProductName(), row.get("product_name"), "row " + i);
+			assertEquals(product.getPrice(), row.get("price"), "row " + i);
+			if (product.getProductName().startsWith("new-")) {
+				// Pre-allocated ids follow the input order
+				assertTrue(product.getId() > previousNewId, "row " + i);
+				previousNewId = product.getId();
+			}
+		}
+
+		assertEquals(first.getId(), ((Product) saved.get(1)).getId());
+		assertEquals("existing-1-renamed", rows.get(first.getId()).get("product_name"));
+		assertEquals(1.0, rows.get(first.getId()).get("price"));
+		assertEquals(second.getId(), ((Product) saved.get(saved.size() - 1)).getId());
+		assertEquals("existing-2", rows.get(second.getId()).get("product_name"));
+		assertEquals(20.0, rows.get(second.getId()).get("price"));
+		// An id that matches no row is inserted under a fresh identity value
+		assertEquals("unknown", ((Product) saved.get(2)).getProductName());
+		assertNotEquals(unknownId, ((Product) saved.get(2)).getId());
+	}
+
+	private static Product product(Long id, String name, Double price) {
+		Product product = new Product();
+		product.setId(id);
+		product.setProductName(name);
+		product.setCategory(CATEGORY);
+		product.setPrice(price);
+		return product;
+	}
+}
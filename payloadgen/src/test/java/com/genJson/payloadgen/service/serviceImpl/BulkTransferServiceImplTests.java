@@ -0,0 +1,70 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.genJson.payloadgen.service.BulkTransferService;
+
+@SpringBootTest
+class BulkTransferServiceImplTests {
+
+	@Autowired
+	private BulkTransferService bulkTransferService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@AfterEach
+	void cleanUp() {
+		jdbc.update("delete from product where product_name like 'ingest-test-%'");
+	}
+
+	@Test
+	void reportsRecordIndexesForMinifiedArrays() throws Exception {
+		// Minified: every record is on line 1
+		String body = "[{\"productName\":\"ingest-test-a\",\"stock\":1},"
+				+ "{\"productName\":\"ingest-test-b\",\"stock\":\"many\"},"
+				+ "{\"productName\":\"ingest-test-c\",\"stock\":3}]";
+
+		Map<String, Object> summary = ingest(body, "application/json");
+
+		assertEquals("partial", summary.get("status"));
+		assertEquals(2L, summary.get("inserted"));
+		List<Map<String, Object>> failures = failures(summary);
+		assertEquals(1, failures.size());
+		assertEquals(1L, failures.get(0).get("record"));
+		assertEquals(false, failures.get(0).containsKey("line"));
+	}
+
+	@Test
+	void reportsLinesForNdjson() throws Exception {
+		String body = "{\"productName\":\"ingest-test-a\",\"stock\":1}\n"
+				+ "{\"productName\":\"ingest-test-b\",\"stock\":\"many\"}\n";
+
+		List<Map<String, Object>> failures = failures(ingest(body, "application/x-ndjson"));
+
+		assertEquals(1L, failures.get(0).get("record"));
+		assertEquals(2, failures.get(0).get("line"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> ingest(String body, String contentType) throws Exception {
+		return (Map<String, Object>) bulkTransferService.ingest("product",
+				new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentType, 100);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Map<String, Object>> failures(Map<String, Object> summary) {
+		return (List<Map<String, Object>>) summary.get("failures");
+	}
+}
@@ -0,0 +1,104 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.genJson.payloadgen.model.Product;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class EntityFiltersTests {
+
+	private final EntityMetadata meta = EntityMetadata.of(Product.class);
+
+	@Test
+	void compilesNestedGroups() {
+		Map<String, Object> filter = Map.of("and", List.of(
+				Map.of("field", "category", "op", "eq", "value", "tools"),
+				Map.of("field", "price", "op", "range", "from", "10", "to", 50),
+				Map.of("or", List.of(
+						Map.of("field", "PRODUCTNAME", "op", "prefix", "value", "50%_of\\f"),
+						Map.of("field", "stock", "op", "null"),
+						Map.of("field", "id", "op", "in", "value", List.of(1, "2"))))));
+
+		assertEquals("and(and(equal(category, 'tools'), between(price, 10.0, 50.0)), "
+				+ "or(or(like(productName, '50\\%\\_of\\\\f%', '\\'), isNull(stock)), in(id, [1L, 2L])))",
+				render(EntityFilters.compile(meta, filter)));
+		assertNull(EntityFilters.compile(meta, null));
+	}
+
+	@Test
+	void compilesOpenRangesAndNotNull() {
+		assertEquals("greaterThanOrEqualTo(stock, 5)",
+				render(EntityFilters.compile(meta, Map.of("field", "stock", "op", "range", "from", "5"))));
+		assertEquals("lessThanOrEqualTo(price, 9.5)",
+				render(EntityFilters.compile(meta, Map.of("field", "price", "op", "range", "to", 9.5))));
+		assertEquals("isNotNull(category)",
+				render(EntityFilters.compile(meta, Map.of("field", "category", "op", "null", "value", false))));
+	}
+
+	@Test
+	void rejectsInvalidFiltersBeforeQuerying() {
+		assertThrows(IllegalArgumentException.class,
+				() -> EntityFilters.compile(meta, Map.of("field", "unknown", "value", 1)));
+		assertThrows(IllegalArgumentException.class,
+				() -> EntityFilters.compile(meta, Map.of("field", "stock", "value", "many")));
+		assertThrows(IllegalArgumentException.class,
+				() -> EntityFilters.compile(meta, Map.of("field", "price", "op", "prefix", "value", "1")));
+		assertThrows(IllegalArgumentException.class,
+				() -> EntityFilters.compile(meta, Map.of("field", "price", "op", "range")));
+		assertThrows(IllegalArgumentException.class,
+				() -> EntityFilters.compile(meta, Map.of("field", "price", "op", "like", "value", 1)));
+		assertThrows(IllegalArgumentException.class,
+				() -> EntityFilters.compile(meta, Map.of("or", List.of())));
+	}
+
+	// Renders the predicate tree through a CriteriaBuilder that records its calls as text
+	private static String render(Specification<Object> spec) {
+		return spec.toPredicate(proxy(Root.class, "root"), null, proxy(CriteriaBuilder.class, "cb")).toString();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, String text) {
+		return (T) Proxy.newProxyInstance(EntityFiltersTests.class.getClassLoader(),
+				type == Predicate.class ? new Class<?>[] { type } : new Class<?>[] { type, Predicate.class },
+				(self, method, args) -> switch (method.getName()) {
+					case "toString" -> text;
+					case "hashCode" -> System.identityHashCode(self);
+					case "equals" -> self == args[0];
+					// root.get(field) is a path; path.in(values) is the in predicate
+					case "get" -> proxy(Path.class, (String) args[0]);
+					case "in" -> proxy(Predicate.class, "in(" + text + ", " + value(args[0]) + ")");
+					default -> proxy(Predicate.class, method.getName() + "(" + Arrays.stream(args)
+							.map(EntityFiltersTests::value).collect(Collectors.joining(", ")) + ")");
+				});
+	}
+
+	private static String value(Object value) {
+		if (value instanceof Object[] array) {
+			return Arrays.stream(array).map(EntityFiltersTests::value).collect(Collectors.joining(", "));
+		}
+		if (value instanceof Collection<?> values) {
+			return values.stream().map(EntityFiltersTests::value).collect(Collectors.joining(", ", "[", "]"));
+		}
+		if (value instanceof String || value instanceof Character) {
+			return "'" + value + "'";
+		}
+		return value instanceof Long ? value + "L" : String.valueOf(value);
+	}
+}
@@ -0,0 +1,151 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.genJson.payloadgen.model.Product;
+import com.genJson.payloadgen.repository.ProductRepository;
+import com.genJson.payloadgen.service.EntityRegistry;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+import com.genJson.payloadgen.service.metadata.FieldAccessor;
+import com.genJson.payloadgen.service.serviceImpl.EntityQueries.CountMode;
+
+@SpringBootTest
+class EntityQueriesTests {
+
+	private static final String CATEGORY = "keyset-test";
+
+	// Pages of 3 end inside the runs of nulls and of equal prices
+	private static final Double[] PRICES = { null, 10.0, null, 12.5, 10.0, null, 10.0, 10.0, null, 12.5, 10.0, 7.0,
+			null };
+
+	@Autowired
+	private EntityQueries queries;
+
+	@Autowired
+	private EntityRegistry registry;
+
+	@Autowired
+	private ProductRepository products;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	private EntityMetadata meta;
+	private Specification<Object> filter;
+	private List<Product> saved;
+
+	@BeforeEach
+	void seed() {
+		meta = registry.getMetadata("product");
+		filter = EntityFilters.compile(meta, Map.of("field", "category", "value", CATEGORY));
+		List<Product> rows = new ArrayList<>();
+		for (int i = 0; i < PRICES.length; i++) {
+			Product product = new Product();
+			product.setProductName("keyset-" + i);
+			product.setCategory(CATEGORY);
+			product.setPrice(PRICES[i]);
+			rows.add(product);
+		}
+		saved = products.saveAll(rows);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbc.update("delete from product where category = ?", CATEGORY);
+	}
+
+	@Test
+	void ascendingWalkPutsNullsLastAndBreaksTiesById() {
+		Comparator<Product> byPrice = Comparator.comparing(Product::getPrice,
+				Comparator.nullsLast(Comparator.naturalOrder()));
+		assertEquals(expected(byPrice.thenComparing(Product::getId)), walk(false, null));
+	}
+
+	@Test
+	void descendingWalkPutsNullsFirstAndBreaksTiesById() {
+		Comparator<Product> byPrice = Comparator.comparing(Product::getPrice,
+				Comparator.nullsFirst(Comparator.<Double>reverseOrder()));
+		assertEquals(expected(byPrice.thenComparing(Product::getId, Comparator.reverseOrder())), walk(true, null));
+	}
+
+	@Test
+	void projectedWalkReadsTheCursorFromHiddenColumns() {
+		Comparator<Product> byPrice = Comparator.comparing(Product::getPrice,
+				Comparator.nullsLast(Comparator.naturalOrder()));
+		assertEquals(expected(byPrice.thenComparing(Product::getId)),
+				walk(false, queries.projection(meta, "productName")));
+	}
+
+	@Test
+	void seeksByIdWhenUnsorted() {
+		List<Object> names = new ArrayList<>();
+		String cursor = null;
+		do {
+			Map<String, Object> page = queries.keysetPage(meta, null, filter, null, true, cursor, 5, CountMode.NONE);
+			page(page).forEach(row -> names.add(((Product) row).getProductName()));
+			cursor = (String) page.get("nextCursor");
+		} while (cursor != null);
+
+		assertEquals(expected(Comparator.comparing(Product::getId, Comparator.reverseOrder())), names);
+	}
+
+	@Test
+	void rejectsACursorFromAnotherSortOrder() {
+		String cursor = (String) queries.keysetPage(meta, null, filter, "price", false, null, 3, CountMode.NONE)
+				.get("nextCursor");
+
+		assertThrows(IllegalArgumentException.class,
+				() -> queries.keysetPage(meta, null, filter, "price", true, cursor, 3, CountMode.NONE));
+		assertThrows(IllegalArgumentException.class,
+				() -> queries.keysetPage(meta, null, filter, "stock", false, cursor, 3, CountMode.NONE));
+	}
+
+	// Follows nextCursor to the end, checking hasNext on the way, and returns the product names in page order
+	private List<Object> walk(boolean descending, List<FieldAccessor> projection) {
+		List<Object> names = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			Map<String, Object> page = queries.keysetPage(meta, projection, filter, "price", descending, cursor, 3,
+					CountMode.NONE);
+			for (Object row : page(page)) {
+				names.add(projection == null ? ((Product) row).getProductName()
+						: ((Map<?, ?>) row).get("productName"));
+			}
+			cursor = (String) page.get("nextCursor");
+			assertEquals(cursor != null, page.get("hasNext"));
+			pages++;
+		} while (cursor != null);
+
+		assertEquals((PRICES.length + 2) / 3, pages);
+		return names;
+	}
+
+	private List<Object> expected(Comparator<Product> order) {
+		return saved.stream().sorted(order).map(product -> (Object) product.getProductName()).toList();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object> page(Map<String, Object> page) {
+		List<Object> rows = (List<Object>) page.get("data");
+		assertFalse(rows.isEmpty());
+		assertNull(page.get("totalElements"));
+		return rows;
+	}
+}
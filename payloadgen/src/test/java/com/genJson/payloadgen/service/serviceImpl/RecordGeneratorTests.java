@@ -0,0 +1,54 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genJson.payloadgen.model.User;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+
+class RecordGeneratorTests {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final EntityMetadata meta = EntityMetadata.of(User.class);
+
+	@Test
+	void sameSeedAndIndexGiveSameRecord() throws IOException {
+		RecordGenerator generator = new RecordGenerator(meta, 42, Map.of(), "example.com");
+		RecordGenerator again = new RecordGenerator(meta, 42, Map.of(), "example.com");
+		RecordGenerator otherSeed = new RecordGenerator(meta, 43, Map.of(), "example.com");
+
+		assertEquals(write(generator, 7), write(again, 7));
+		assertNotEquals(write(generator, 7), write(otherSeed, 7));
+	}
+
+	@Test
+	void emailsAreUniqueAndIdsLeftToTheDatabase() throws IOException {
+		RecordGenerator generator = new RecordGenerator(meta, 1, Map.of(), "example.com");
+		Set<String> emails = new HashSet<>();
+		for (long i = 0; i < 10_000; i++) {
+			Map<?, ?> record = mapper.readValue(write(generator, i), Map.class);
+			emails.add((String) record.get("email"));
+			assertEquals(Set.of("name", "email"), record.keySet());
+		}
+		assertEquals(10_000, emails.size());
+	}
+
+	private String write(RecordGenerator generator, long index) throws IOException {
+		StringWriter out = new StringWriter();
+		try (JsonGenerator json = mapper.getFactory().createGenerator(out)) {
+			generator.write(json, index);
+		}
+		return out.toString();
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.genJson.payloadgen.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.genJson.payloadgen.model.Product;
+import com.genJson.payloadgen.service.metadata.EntityMetadata;
+
+class RelationBatchTests {
+
+	private final EntityMetadata meta = EntityMetadata.of(Product.class);
+
+	@Test
+	void missingTargetOnlyFailsItsOwner() {
+		RelationBatch relations = new RelationBatch(false, 100);
+		Map<Object, Object> assigned = new HashMap<>();
+		JpaRepository<Object, Object> repository = repository(1L, 2L);
+
+		relations.owner(10L);
+		relations.defer(meta, repository, 1L, "product", related -> assigned.put(10L, related));
+		relations.owner(11L);
+		relations.defer(meta, repository, 99L, "product", related -> assigned.put(11L, related));
+		relations.owner(12L);
+		relations.defer(meta, repository, 2L, "product", related -> assigned.put(12L, related));
+
+		Map<Object, RuntimeException> failures = relations.resolveEach();
+
+		assertEquals(List.of(11L), List.copyOf(failures.keySet()));
+		assertEquals("Related entity not found for product with ID 99", failures.get(11L).getMessage());
+		assertEquals(1L, ((Product) assigned.get(10L)).getId());
+		assertEquals(2L, ((Product) assigned.get(12L)).getId());
+		assertNull(assigned.get(11L));
+	}
+
+	@Test
+	void ownersAreRecordsNotLines() {
+		// Two records of a minified array, both on line 1, keyed by their ordinal as ingest does
+		RelationBatch relations = new RelationBatch(false, 100);
+		Map<Object, Object> assigned = new HashMap<>();
+		JpaRepository<Object, Object> repository = repository(1L);
+
+		relations.owner(0L);
+		relations.defer(meta, repository, 1L, "product", related -> assigned.put(0L, related));
+		relations.owner(1L);
+		relations.defer(meta, repository, 2L, "product", related -> assigned.put(1L, related));
+
+		assertEquals(List.of(1L), List.copyOf(relations.resolveEach().keySet()));
+		assertEquals(1L, ((Product) assigned.get(0L)).getId());
+	}
+
+	@Test
+	void resolveStillFailsTheWholeBatch() {
+		RelationBatch relations = new RelationBatch(false, 100);
+		relations.defer(meta, repository(), 5L, "product", related -> {
+		});
+
+		assertThrows(IllegalArgumentException.class, relations::resolve);
+	}
+
+	// findAllById returns a Product for each id in existing
+	@SuppressWarnings("unchecked")
+	private static JpaRepository<Object, Object> repository(Long... existing) {
+		List<Long> ids = List.of(existing);
+		return (JpaRepository<Object, Object>) Proxy.newProxyInstance(RelationBatchTests.class.getClassLoader(),
+				new Class<?>[] { JpaRepository.class }, (proxy, method, args) -> {
+					if (!method.getName().equals("findAllById")) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					List<Object> found = new ArrayList<>();
+					for (Object id : (Iterable<Object>) args[0]) {
+						if (ids.contains(id)) {
+							Product product = new Product();
+							product.setId((Long) id);
+							found.add(product);
+						}
+					}
+					return found;
+				});
+	}
+}